@@ -0,0 +1,70 @@
+package data;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Generates "Test Data" workbooks with the same column layout as TestDataPOC.xlsx,
+// once per size per benchmark JVM
+public class BenchWorkbooks {
+
+    public static final String SHEET = "Test Data";
+    private static final String[] HEADER = {"TestType", "FirstName", "LastName", "Email", "Gender",
+        "Mobile", "DateOfBirth", "Subjects", "Address", "ExpectedEmptyField"};
+    private static final String[] GENDERS = {"Male", "Female", "Other"};
+    private static final String[] SUBJECTS = {"Maths", "English", "Physics", "Chemistry"};
+
+    private static final Map<Integer, File> workbooks = new ConcurrentHashMap<>();
+
+    public static File workbook(int rows) {
+        return workbooks.computeIfAbsent(rows, BenchWorkbooks::generate);
+    }
+
+    private static File generate(int rows) {
+        try {
+            File file = File.createTempFile("bench-" + rows + "-", ".xlsx");
+            file.deleteOnExit();
+            // SXSSF keeps only a window of rows in memory while writing
+            try (SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+                 FileOutputStream out = new FileOutputStream(file)) {
+                Sheet sheet = workbook.createSheet(SHEET);
+                CellStyle dateStyle = workbook.createCellStyle();
+                dateStyle.setDataFormat(workbook.createDataFormat().getFormat("dd mmmm yyyy"));
+
+                Row header = sheet.createRow(0);
+                for (int i = 0; i < HEADER.length; i++) {
+                    header.createCell(i).setCellValue(HEADER[i]);
+                }
+                Calendar calendar = Calendar.getInstance();
+                for (int r = 1; r <= rows; r++) {
+                    boolean valid = r % 4 != 0;
+                    Row row = sheet.createRow(r);
+                    row.createCell(0).setCellValue(valid ? "Valid" : "Invalid");
+                    row.createCell(1).setCellValue(valid || r % 8 != 0 ? "First" + r : "");
+                    row.createCell(2).setCellValue("Last" + r);
+                    row.createCell(3).setCellValue("user" + r + "@example.com");
+                    row.createCell(4).setCellValue(GENDERS[r % GENDERS.length]);
+                    row.createCell(5).setCellValue(9000000000L + r);
+                    calendar.set(1970 + r % 40, r % 12, 1 + r % 28, 0, 0, 0);
+                    row.createCell(6).setCellValue(calendar.getTime());
+                    row.getCell(6).setCellStyle(dateStyle);
+                    row.createCell(7).setCellValue(SUBJECTS[r % SUBJECTS.length]);
+                    row.createCell(8).setCellValue(r + " Main Street, City, State");
+                    row.createCell(9).setCellValue(valid ? "" : (r % 8 == 0 ? "First name" : "Last name"));
+                }
+                workbook.write(out);
+            }
+            return file;
+        } catch (IOException e) {
+            throw new RuntimeException("Error generating benchmark workbook", e);
+        }
+    }
+}
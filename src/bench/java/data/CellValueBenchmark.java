@@ -0,0 +1,82 @@
+package data;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// Per-cell conversion cost in Dataprovider.getCellValue, with a shared-formatter baseline
+// to show what the per-call SimpleDateFormat allocation costs
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CellValueBenchmark {
+
+    private XSSFWorkbook workbook;
+    private Cell dateCell;
+    private Cell numericCell;
+    private Cell stringCell;
+    private Dataprovider dataprovider;
+    private SimpleDateFormat sharedFormat;
+
+    @Setup
+    public void setUp() {
+        workbook = new XSSFWorkbook();
+        CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.createDataFormat().getFormat("dd mmmm yyyy"));
+        Row row = workbook.createSheet(BenchWorkbooks.SHEET).createRow(0);
+        dateCell = row.createCell(0);
+        dateCell.setCellValue(new Date(0));
+        dateCell.setCellStyle(dateStyle);
+        numericCell = row.createCell(1);
+        numericCell.setCellValue(1234567890L);
+        stringCell = row.createCell(2);
+        stringCell.setCellValue("aryan.sinha@gmail.com");
+        dataprovider = new Dataprovider();
+        sharedFormat = new SimpleDateFormat("dd MMMM yyyy");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        workbook.close();
+    }
+
+    @Benchmark
+    public Object dateCell() {
+        return dataprovider.getCellValue(dateCell);
+    }
+
+    @Benchmark
+    public Object dateCellSharedFormatter() {
+        return sharedFormat.format(dateCell.getDateCellValue());
+    }
+
+    @Benchmark
+    public Object numericCell() {
+        return dataprovider.getCellValue(numericCell);
+    }
+
+    @Benchmark
+    public Object stringCell() {
+        return dataprovider.getCellValue(stringCell);
+    }
+}
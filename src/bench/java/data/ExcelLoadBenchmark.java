@@ -0,0 +1,79 @@
+package data;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+// Cost of getting rows out of a workbook through each data source
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExcelLoadBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int rows;
+
+    private String path;
+    private Dataprovider dataprovider;
+
+    @Setup
+    public void setUp() throws Exception {
+        path = BenchWorkbooks.workbook(rows).getPath();
+        dataprovider = new Dataprovider();
+        File snapshotDir = Files.createTempDirectory("bench-snapshots").toFile();
+        System.setProperty("testdata.snapshotDir", snapshotDir.getPath());
+        // Warm the cache and compile the snapshot outside the measured region
+        dataprovider.getExcelData(path, BenchWorkbooks.SHEET);
+        TestDataSnapshot.open(path, BenchWorkbooks.SHEET);
+    }
+
+    // Full XSSFWorkbook parse, what every provider call paid before the cache
+    @Benchmark
+    public TestDataCache.Sheet getExcelDataCold() {
+        return dataprovider.readSheet(path, BenchWorkbooks.SHEET);
+    }
+
+    @Benchmark
+    public TestDataCache.Sheet getExcelDataCached() {
+        return dataprovider.getExcelData(path, BenchWorkbooks.SHEET);
+    }
+
+    @Benchmark
+    public Object[][] filterDataByTestType() {
+        return dataprovider.filterDataByTestType(path, "valid");
+    }
+
+    @Benchmark
+    public void streamAllRows(Blackhole blackhole) {
+        try (StreamingExcelReader reader = new StreamingExcelReader(path, BenchWorkbooks.SHEET, null)) {
+            while (reader.hasNext()) {
+                blackhole.consume(reader.next());
+            }
+        }
+    }
+
+    @Benchmark
+    public void snapshotAllRows(Blackhole blackhole) {
+        Iterator<Object[]> iterator = TestDataSnapshot.open(path, BenchWorkbooks.SHEET).rows(null);
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+}
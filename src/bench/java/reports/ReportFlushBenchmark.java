@@ -0,0 +1,110 @@
+package reports;
+
+import com.aventstack.extentreports.ExtentTest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// ExtentReporter's flush path for reports shaped like ours, a node per data row with a handful of
+// step logs, including the report lock, part roll-over at report.maxTestsPerFile and the result stream:
+//   record  create, log and complete every test with the default incremental flushes, then flush
+//   flush   the final flush alone, of a report whose tests have all completed
+// Output goes to a temporary directory, user.dir is pointed there for the fork.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReportFlushBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int tests;
+
+    // 0 = one file
+    @Param({"500", "0"})
+    public int maxTestsPerFile;
+
+    private File directory;
+    private String userDir;
+    private final List<ExtentTest> completed = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws IOException {
+        directory = Files.createTempDirectory("bench-report-").toFile();
+        userDir = System.getProperty("user.dir");
+        System.setProperty("user.dir", directory.getPath());
+        System.setProperty("report.maxTestsPerFile", String.valueOf(maxTestsPerFile));
+        System.setProperty("report.flushIntervalSeconds", "0");
+    }
+
+    // A report whose tests have all completed, nothing flushed since the last roll-over
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        ExtentReporter.reset();
+        System.setProperty("report.flushEvery", "0");
+        completed.clear();
+        for (int i = 0; i < tests; i++) {
+            completed.add(createTest(i));
+        }
+        for (ExtentTest test : completed) {
+            ExtentReporter.testCompleted(test);
+        }
+        System.clearProperty("report.flushEvery");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws IOException {
+        ExtentReporter.reset();
+        System.setProperty("user.dir", userDir);
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public void flush() {
+        ExtentReporter.flush();
+    }
+
+    @Benchmark
+    public void record() {
+        ExtentReporter.reset();
+        for (int i = 0; i < tests; i++) {
+            ExtentReporter.testCompleted(createTest(i));
+        }
+        ExtentReporter.flush();
+    }
+
+    private static ExtentTest createTest(int i) {
+        ExtentTest test = ExtentReporter.createTest("Valid Registration - First" + i + " Last" + i);
+        ExtentReporter.update(test, t -> {
+            t.info("Navigated to: https://demoqa.com/automation-practice-form");
+            t.info("Form filled with test data");
+            t.info("Submit button clicked");
+            t.pass("Success modal displayed after valid registration");
+            t.pass("Test passed successfully.");
+        });
+        return test;
+    }
+}
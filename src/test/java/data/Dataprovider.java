@@ -5,26 +5,49 @@ import org.apache.poi.ss.usermodel.Row.MissingCellPolicy;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.testng.annotations.DataProvider;
 
+import utils.ResultCache;
+import utils.Shard;
+
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.lang.reflect.Method;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Predicate;
 
 public class Dataprovider {
 
-    private static final String excel_path = "C:\\Users\\aryan.sinha\\selenium_QA\\bootcampoc\\src\\test\\resources\\TestData\\TestDataPOC.xlsx";
+    // Override with -Dtestdata.path=<file> to point at another workbook
+    private static final String excel_path = System.getProperty("testdata.path",
+            "C:\\Users\\aryan.sinha\\selenium_QA\\bootcampoc\\src\\test\\resources\\TestData\\TestDataPOC.xlsx");
 //    private static final String valid_sheet = "Happy Path";
 //    private static final String invalid_sheet = "Negative Flow";
     private static final String single_sheet = "Test Data";
+    private static final int test_type_column = 0;
+    // "cache" parses the workbook once into memory, "stream" decodes rows on demand via SAX,
+    // "snapshot" reads a memory-mapped binary copy compiled from the workbook, "synthetic"
+    // generates seeded rows instead of reading the workbook (see SyntheticDataGenerator)
+    private static final String data_mode = System.getProperty("testdata.mode", "cache");
+
+    //method to read data from excel, parsed once per process and served from the cache
+    private TestDataCache.Sheet getExcelData(String sheetName) {
+        return getExcelData(excel_path, sheetName);
+    }
 
-    //method to read data from excel
-    private Object[][] getExcelData(String sheetName) {
+    // Package-private from here on so the benchmarks in src/bench can drive them with generated workbooks
+    TestDataCache.Sheet getExcelData(String filePath, String sheetName) {
+        return TestDataCache.getSheet(filePath, sheetName, () -> readSheet(filePath, sheetName));
+    }
+
+    TestDataCache.Sheet readSheet(String filePath, String sheetName) {
         List<Object[]> dataList = new ArrayList<>();
+        String[] header = new String[0];
 
-        try (FileInputStream fis = new FileInputStream(new File(excel_path));
+        try (FileInputStream fis = new FileInputStream(new File(filePath));
              Workbook workbook = new XSSFWorkbook(fis)) {
 
             Sheet sheet = workbook.getSheet(sheetName);
@@ -35,9 +58,13 @@ public class Dataprovider {
             //iterate through all rows starting from the 2nd row 
             Iterator<Row> rowIterator = sheet.iterator();
 
-            // Skip the header row
+            // Keep the header row aside for column lookups
             if (rowIterator.hasNext()) {
-                rowIterator.next();
+                Row headerRow = rowIterator.next();
+                header = new String[Math.max(0, headerRow.getLastCellNum())];
+                for (int i = 0; i < header.length; i++) {
+                    header[i] = getCellValue(headerRow.getCell(i, MissingCellPolicy.CREATE_NULL_AS_BLANK)).toString();
+                }
             }
 
             while (rowIterator.hasNext()) {
@@ -54,14 +81,14 @@ public class Dataprovider {
             }
 
         } catch (IOException e) {
-            System.err.println("Error reading Excel file: " + excel_path);
+            System.err.println("Error reading Excel file: " + filePath);
             e.printStackTrace();
         }
 
-        return dataList.toArray(new Object[0][0]);
+        return new TestDataCache.Sheet(header, dataList);
     }
     
-    private Object getCellValue(Cell cell) {
+    Object getCellValue(Cell cell) {
         switch (cell.getCellType()) {
             case STRING:
                 return cell.getStringCellValue();
@@ -94,29 +121,56 @@ public class Dataprovider {
 //    }
     
  // Data providers - filter by test type
-    @DataProvider(name = "validRegistrationData")
-    public Object[][] provideValidRegistrationData() {
-        return filterDataByTestType("valid");
+    // Rows run in parallel, sized by data-provider-thread-count in the suite xml
+    @DataProvider(name = "validRegistrationData", parallel = true)
+    public Iterator<Object[]> provideValidRegistrationData(Method method) {
+        return skipCachedPasses(method, rowsForTestType("valid"));
     }
     
-    @DataProvider(name = "invalidRegistrationData")
-    public Object[][] provideInvalidRegistrationData() {
-        return filterDataByTestType("invalid");
+    @DataProvider(name = "invalidRegistrationData", parallel = true)
+    public Iterator<Object[]> provideInvalidRegistrationData(Method method) {
+        return skipCachedPasses(method, rowsForTestType("invalid"));
     }
     
-    // Filter data based on test type
-    private Object[][] filterDataByTestType(String testType) {
-        Object[][] allData = getExcelData(single_sheet);
-        List<Object[]> filteredData = new ArrayList<>();
-        
-        for (Object[] row : allData) {
-            if (row.length > 0 && row[0] != null && 
-                row[0].toString().equalsIgnoreCase(testType)) {
-                filteredData.add(row);
-            }
+    // With -Dtestcache.enabled=true, rows that already passed unchanged are left out
+    private Iterator<Object[]> skipCachedPasses(Method method, Iterator<Object[]> rows) {
+        return ResultCache.isEnabled() ? ResultCache.getInstance().filter(method, rows) : rows;
+    }
+    
+    // Only the rows of this JVM's shard are returned when -Dshard.count is set
+    private Iterator<Object[]> rowsForTestType(String testType) {
+        if ("stream".equalsIgnoreCase(data_mode)) {
+            return streamDataByTestType(testType);
+        }
+        if ("synthetic".equalsIgnoreCase(data_mode)) {
+            return new SyntheticDataGenerator(testType, Shard::includes);
         }
-        
-        return filteredData.toArray(new Object[0][0]);
+        if ("snapshot".equalsIgnoreCase(data_mode)) {
+            return TestDataSnapshot.open(excel_path, single_sheet).rows(testTypeFilter(testType).and(Shard::includes));
+        }
+        Object[][] rows = filterDataByTestType(testType);
+        if (Shard.isSharded()) {
+            return Arrays.stream(rows).filter(Shard::includes).iterator();
+        }
+        return Arrays.asList(rows).iterator();
+    }
+    
+    // Filter data based on test type, an indexed lookup on the cached sheet
+    private Object[][] filterDataByTestType(String testType) {
+        return filterDataByTestType(excel_path, testType);
+    }
+    
+    Object[][] filterDataByTestType(String filePath, String testType) {
+        return getExcelData(filePath, single_sheet).rowsWhere(test_type_column, testType);
+    }
+    
+    // Lazily decoded rows of the given test type, nothing is parsed before the first test asks
+    private Iterator<Object[]> streamDataByTestType(String testType) {
+        return new StreamingExcelReader(excel_path, single_sheet, testTypeFilter(testType).and(Shard::includes));
+    }
+    
+    private Predicate<Object[]> testTypeFilter(String testType) {
+        return row -> row.length > test_type_column && row[test_type_column].toString().equalsIgnoreCase(testType);
     }
 
 }
\ No newline at end of file
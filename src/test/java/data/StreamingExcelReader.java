@@ -0,0 +1,241 @@
+package data;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import java.io.InputStream;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+// Reads a sheet with POI's SAX event model on a background thread and hands rows
+// out one at a time, so memory stays flat regardless of sheet size.
+// Rows come out as Dataprovider.readSheet builds them: the first physical row is the header, each
+// row is as wide as its last stored cell, and cells are converted as getCellValue does, formulas
+// as their formula text.
+public class StreamingExcelReader implements Iterator<Object[]>, AutoCloseable {
+
+    private static final int QUEUE_CAPACITY = 256;
+    private static final Object[] END_OF_SHEET = new Object[0];
+
+    private final BlockingQueue<Object[]> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Predicate<Object[]> filter;
+    private volatile boolean closed;
+    private volatile RuntimeException failure;
+    private Object[] next;
+
+    public StreamingExcelReader(String filePath, String sheetName, Predicate<Object[]> filter) {
+        this.filter = filter;
+        Thread parser = new Thread(() -> parse(filePath, sheetName), "excel-stream-" + sheetName);
+        parser.setDaemon(true);
+        parser.start();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = take();
+        }
+        return next != END_OF_SHEET;
+    }
+
+    @Override
+    public Object[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Object[] row = next;
+        next = null;
+        return row;
+    }
+
+    // Stop the parser early when the caller abandons the iterator
+    @Override
+    public void close() {
+        closed = true;
+        queue.clear();
+    }
+
+    private Object[] take() {
+        try {
+            Object[] row = queue.take();
+            if (row == END_OF_SHEET && failure != null) {
+                throw failure;
+            }
+            return row;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while reading sheet", e);
+        }
+    }
+
+    private void parse(String filePath, String sheetName) {
+        try (OPCPackage pkg = OPCPackage.open(filePath, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+
+            boolean found = false;
+            while (sheets.hasNext()) {
+                try (InputStream sheetStream = sheets.next()) {
+                    if (!sheets.getSheetName().equals(sheetName)) {
+                        continue;
+                    }
+                    found = true;
+                    XMLReader xmlReader = XMLHelper.newXMLReader();
+                    RowCollector collector = new RowCollector();
+                    xmlReader.setContentHandler(new XSSFSheetXMLHandler(
+                        reader.getStylesTable(), null, strings, collector, new RowValueFormatter(), true) {
+                        @Override
+                        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+                            super.startElement(uri, localName, qName, attributes);
+                            // POI hands cells over without their type and skips stored cells that
+                            // have no value, note both here
+                            if ("c".equals(localName)) {
+                                collector.startCell(attributes.getValue("r"), attributes.getValue("t"));
+                            } else if ("f".equals(localName)) {
+                                collector.formula = true;
+                            }
+                        }
+                    });
+                    xmlReader.parse(new InputSource(sheetStream));
+                }
+                break;
+            }
+            if (!found) {
+                throw new RuntimeException("Sheet not found: " + sheetName);
+            }
+        } catch (StopParsing e) {
+            // Reader was closed, nothing left to deliver
+        } catch (RuntimeException e) {
+            failure = e;
+        } catch (Exception e) {
+            System.err.println("Error streaming Excel file: " + filePath);
+            failure = new RuntimeException("Error streaming Excel file: " + filePath, e);
+        } finally {
+            try {
+                offer(END_OF_SHEET);
+            } catch (StopParsing e) {
+                // Reader was closed before the end marker could be queued
+            }
+        }
+    }
+
+    private void offer(Object[] row) {
+        try {
+            while (!closed) {
+                if (queue.offer(row, 100, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new StopParsing();
+    }
+
+    // Thrown from inside the SAX callbacks to abandon parsing once the reader is closed
+    private static class StopParsing extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        StopParsing() {
+            super(null, null, false, false);
+        }
+    }
+
+    // Assembles SAX cell events into rows, skipping the header and padding gaps with ""
+    private class RowCollector implements SheetContentsHandler {
+
+        private boolean headerSeen;
+        private List<String> cells = new ArrayList<>();
+        private int nextColumn;
+        // Columns up to the last stored cell, valued or not, as Row.getLastCellNum counts them
+        private int width;
+        // Type of the cell being parsed and whether it holds a formula, set by the sheet handler
+        private String cellType;
+        private boolean formula;
+
+        void startCell(String cellReference, String type) {
+            nextColumn = cellReference != null ? new CellReference(cellReference).getCol() : width;
+            width = Math.max(width, nextColumn + 1);
+            cellType = type;
+            formula = false;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new ArrayList<>();
+            nextColumn = 0;
+            width = 0;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            while (cells.size() < column) {
+                cells.add("");
+            }
+            String value = formattedValue == null ? "" : formattedValue;
+            if (formula) {
+                // Formula text as it stands, whatever type its cached result has
+            } else if ("b".equals(cellType)) {
+                // getCellValue renders booleans as "true"/"false"
+                value = value.toLowerCase();
+            } else if ("e".equals(cellType) && value.startsWith("ERROR:")) {
+                // and errors as the bare code, e.g. "#DIV/0!"
+                value = value.substring("ERROR:".length());
+            }
+            cells.add(value);
+            nextColumn = column + 1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            // The first row in the sheet is the header, wherever it starts
+            if (!headerSeen) {
+                headerSeen = true;
+                return;
+            }
+            while (cells.size() < width) {
+                cells.add("");
+            }
+            Object[] row = cells.toArray(new Object[0]);
+            if (filter == null || filter.test(row)) {
+                offer(row);
+            }
+        }
+    }
+
+    // Dates as "dd MMMM yyyy" and other numbers as whole values, matching getCellValue
+    private static class RowValueFormatter extends DataFormatter {
+
+        private final SimpleDateFormat dateFormat = new SimpleDateFormat("dd MMMM yyyy");
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return dateFormat.format(DateUtil.getJavaDate(value, use1904Windowing));
+            }
+            return String.valueOf((long) value);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package data;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+public class StreamingExcelReaderTest {
+
+    private static final String SHEET = "Test Data";
+
+    private File workbook;
+
+    @BeforeMethod
+    public void createWorkbook() throws IOException {
+        workbook = File.createTempFile("StreamingTest-", ".xlsx");
+        try (XSSFWorkbook book = new XSSFWorkbook(); FileOutputStream out = new FileOutputStream(workbook)) {
+            Sheet sheet = book.createSheet(SHEET);
+            CellStyle dateStyle = book.createCellStyle();
+            dateStyle.setDataFormat(book.createDataFormat().getFormat("dd mmmm yyyy"));
+
+            // Nothing above the header
+            Row header = sheet.createRow(2);
+            String[] columns = {"TestType", "FirstName", "LastName", "Mobile", "DateOfBirth"};
+            for (int i = 0; i < columns.length; i++) {
+                header.createCell(i).setCellValue(columns[i]);
+            }
+            // Shorter than the header, with a gap
+            Row valid = sheet.createRow(3);
+            valid.createCell(0).setCellValue("Valid");
+            valid.createCell(1).setCellValue("Aryan");
+            valid.createCell(3).setCellValue(1234567890d);
+            // A styled blank cell past the header still widens the row
+            Row styled = sheet.createRow(4);
+            styled.createCell(0).setCellValue("Invalid");
+            styled.createCell(6).setCellStyle(dateStyle);
+            // Formulas, a boolean, a date and an error after a missing row
+            Row mixed = sheet.createRow(6);
+            mixed.createCell(0).setCellValue("Valid");
+            mixed.createCell(1).setCellFormula("B4&\"x\"");
+            mixed.createCell(2).setCellValue(true);
+            Calendar calendar = Calendar.getInstance();
+            calendar.clear();
+            calendar.set(1990, Calendar.JANUARY, 15);
+            mixed.createCell(3).setCellValue(calendar.getTime());
+            mixed.getCell(3).setCellStyle(dateStyle);
+            mixed.createCell(4).setCellErrorValue(FormulaError.DIV0.getCode());
+            mixed.createCell(5).setCellFormula("1>0");
+            book.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            book.write(out);
+        }
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteWorkbook() {
+        workbook.delete();
+    }
+
+    @Test
+    public void rowsMatchTheWorkbookReader() {
+        List<Object[]> expected = new Dataprovider().readSheet(workbook.getPath(), SHEET).getRows();
+        List<Object[]> streamed = drain(new StreamingExcelReader(workbook.getPath(), SHEET, null));
+
+        Assert.assertEquals(streamed.size(), expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(streamed.get(i), expected.get(i), "row " + i);
+        }
+        Assert.assertEquals(streamed.get(0), new Object[] {"Valid", "Aryan", "", "1234567890"});
+        Assert.assertEquals(streamed.get(1), new Object[] {"Invalid", "", "", "", "", "", ""});
+        Assert.assertEquals(streamed.get(2), new Object[] {"Valid", "B4&\"x\"", "true", "15 January 1990", "#DIV/0!", "1>0"});
+    }
+
+    @Test
+    public void filterRunsOnTheParsedRows() {
+        List<Object[]> invalid = drain(new StreamingExcelReader(workbook.getPath(), SHEET, row -> "Invalid".equals(row[0])));
+        Assert.assertEquals(invalid.size(), 1);
+        Assert.assertEquals(invalid.get(0).length, 7);
+    }
+
+    @Test
+    public void filterFailureReachesTheConsumerAfterTheRowsBeforeIt() {
+        StreamingExcelReader reader = new StreamingExcelReader(workbook.getPath(), SHEET, row -> {
+            if ("Invalid".equals(row[0])) {
+                throw new IllegalStateException("bad row");
+            }
+            return true;
+        });
+        Assert.assertTrue(reader.hasNext());
+        Assert.assertEquals(reader.next()[1], "Aryan");
+        try {
+            reader.hasNext();
+            Assert.fail("the parser's failure should surface");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(e.getMessage(), "bad row");
+        }
+    }
+
+    @Test
+    public void missingSheetAndFileAreReported() {
+        try {
+            new StreamingExcelReader(workbook.getPath(), "Negative Flow", null).hasNext();
+            Assert.fail("missing sheet accepted");
+        } catch (RuntimeException e) {
+            Assert.assertEquals(e.getMessage(), "Sheet not found: Negative Flow");
+        }
+        try {
+            new StreamingExcelReader(workbook.getPath() + ".missing", SHEET, null).hasNext();
+            Assert.fail("missing file accepted");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains(workbook.getName() + ".missing"), e.getMessage());
+        }
+    }
+
+    @Test
+    public void closingEarlyStopsTheParser() throws Exception {
+        File large = File.createTempFile("StreamingTest-large-", ".xlsx");
+        try {
+            try (XSSFWorkbook book = new XSSFWorkbook(); FileOutputStream out = new FileOutputStream(large)) {
+                Sheet sheet = book.createSheet("Large");
+                for (int i = 0; i <= 5000; i++) {
+                    sheet.createRow(i).createCell(0).setCellValue(i == 0 ? "TestType" : "Valid");
+                }
+                book.write(out);
+            }
+            StreamingExcelReader reader = new StreamingExcelReader(large.getPath(), "Large", null);
+            for (int i = 0; i < 10; i++) {
+                reader.next();
+            }
+            // The queue holds far fewer rows than the sheet, so the parser is blocked until closed
+            reader.close();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (parserRunning("excel-stream-Large") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            Assert.assertFalse(parserRunning("excel-stream-Large"), "parser thread still running after close");
+        } finally {
+            large.delete();
+        }
+    }
+
+    private static boolean parserRunning(String name) {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals(name) && thread.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Object[]> drain(StreamingExcelReader reader) {
+        List<Object[]> rows = new ArrayList<>();
+        reader.forEachRemaining(rows::add);
+        return rows;
+    }
+}
@@ -0,0 +1,237 @@
+package data;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+
+// Generates registration rows on demand instead of reading them from the workbook, for runs far
+// larger than anyone would type into a sheet. Selected with -Dtestdata.mode=synthetic.
+// Each row is built from the seed and its own index only, so a run is reproducible, nothing is
+// held in memory and shards or cache lookups see the same rows in every JVM.
+// Rows have the columns the registration tests take: TestType, FirstName, LastName, Email,
+// Gender, Mobile, DateOfBirth ("dd MMMM yyyy"), Subjects, Address, ExpectedEmptyField.
+//   -Dsynthetic.rows=N          rows per test type (default 1000)
+//   -Dsynthetic.seed=S          (default 42)
+//   -Dsynthetic.gender=W        weighted choices, e.g. Male=45,Female=45,Other=10 (the default)
+//   -Dsynthetic.subjects=W      weighted subjects, default every subject the form offers, equally
+//   -Dsynthetic.dobFrom=D, -Dsynthetic.dobTo=D   date of birth range, yyyy-MM-dd
+//                               (default 1960-01-01 to 2008-12-31, uniform)
+//   -Dsynthetic.dob=W           weighted year ranges instead, e.g. 1960-1979=1,1980-1999=3,2000-2008=1,
+//                               uniform within each range
+//   -Dsynthetic.required=F      fields the form marks as required, comma separated, any of the row's
+//                               fields from FirstName to Address (default First name,Last name,Gender,Mobile)
+//   -Dsynthetic.missing=W       which required field invalid rows leave empty, default each one equally
+public class SyntheticDataGenerator implements Iterator<Object[]> {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMMM yyyy", Locale.ENGLISH);
+
+    private static final String[] FIRST_NAMES = {
+        "Aryan", "Aditi", "Aditya", "Priya", "Rahul", "Sneha", "Vikram", "Ananya", "Karan", "Meera",
+        "Rohan", "Isha", "Arjun", "Kavya", "Nikhil", "Pooja", "Sanjay", "Divya", "Amit", "Neha"
+    };
+    private static final String[] LAST_NAMES = {
+        "Sinha", "Sharma", "Verma", "Gupta", "Patel", "Reddy", "Iyer", "Nair", "Singh", "Kumar",
+        "Mehta", "Joshi", "Rao", "Das", "Bose", "Kapoor", "Malhotra", "Chopra", "Pillai", "Menon"
+    };
+    private static final String[] STREETS = {
+        "Main Street", "Oak Avenue", "Park Road", "Lake View", "Hill Road", "Station Road", "Church Lane", "Market Street"
+    };
+    private static final String[] MAIL_DOMAINS = {"gmail.com", "yahoo.com", "outlook.com", "example.com"};
+    // The subjects the form's autocomplete offers, each its own first suggestion
+    private static final String SUBJECTS = "Hindi=1,English=1,Maths=1,Physics=1,Chemistry=1,Biology=1,"
+        + "Computer Science=1,Commerce=1,Accounting=1,Economics=1,Arts=1,Social Studies=1,History=1,Civics=1";
+    // Fields the form marks as required, the only ones an empty value makes invalid (see synthetic.required)
+    private static final String REQUIRED_FIELDS = "First name,Last name,Gender,Mobile";
+    // Fields a row can leave empty, in column order from FirstName
+    private static final List<String> FIELDS = Arrays.asList(
+        "first name", "last name", "email", "gender", "mobile", "date of birth", "subjects", "address");
+
+    private final boolean valid;
+    private final long rows;
+    private final long seed;
+    private final Predicate<Object[]> filter;
+    private final Weighted genders;
+    private final Weighted subjects;
+    private final Weighted missingFields;
+    private final Weighted dobRanges;
+    // First epoch day and length in days of each date of birth range, by name
+    private final Map<String, long[]> dobDays = new HashMap<>();
+
+    private long index;
+    private Object[] next;
+
+    public SyntheticDataGenerator(String testType, Predicate<Object[]> filter) {
+        this(testType, Long.getLong("synthetic.rows", 1000L), Long.getLong("synthetic.seed", 42L), filter);
+    }
+
+    public SyntheticDataGenerator(String testType, long rows, long seed, Predicate<Object[]> filter) {
+        if (!"valid".equalsIgnoreCase(testType) && !"invalid".equalsIgnoreCase(testType)) {
+            throw new IllegalArgumentException("Invalid test type: " + testType);
+        }
+        this.valid = "valid".equalsIgnoreCase(testType);
+        this.rows = rows;
+        // Valid and invalid rows come from separate sequences of the same seed
+        this.seed = seed ^ (valid ? 0x5DEECE66DL : 0xB5297A4DL);
+        this.filter = filter;
+        this.genders = Weighted.parse("synthetic.gender", System.getProperty("synthetic.gender", "Male=45,Female=45,Other=10"));
+        this.subjects = Weighted.parse("synthetic.subjects", System.getProperty("synthetic.subjects", SUBJECTS));
+        String requiredFields = System.getProperty("synthetic.required", REQUIRED_FIELDS);
+        List<String> required = new ArrayList<>();
+        for (String field : requiredFields.split(",")) {
+            if (!field.trim().isEmpty()) {
+                required.add(checkField("synthetic.required", field));
+            }
+        }
+        // Each required field equally unless weighted
+        this.missingFields = Weighted.parse("synthetic.missing", System.getProperty("synthetic.missing", requiredFields));
+        for (String field : missingFields.values) {
+            if (!required.contains(checkField("synthetic.missing", field))) {
+                throw new IllegalArgumentException("Invalid synthetic.missing field: " + field + ", expected one of " + required);
+            }
+        }
+        String dob = System.getProperty("synthetic.dob");
+        if (dob != null) {
+            this.dobRanges = Weighted.parse("synthetic.dob", dob);
+            for (String range : dobRanges.values) {
+                String[] years = range.split("-", 2);
+                try {
+                    int fromYear = Integer.parseInt(years[0].trim());
+                    int toYear = years.length > 1 ? Integer.parseInt(years[1].trim()) : fromYear;
+                    addDobRange(range, LocalDate.of(fromYear, 1, 1), LocalDate.of(toYear, 12, 31), "Invalid synthetic.dob entry: " + range);
+                } catch (NumberFormatException | DateTimeException e) {
+                    throw new IllegalArgumentException("Invalid synthetic.dob entry: " + range);
+                }
+            }
+        } else {
+            this.dobRanges = Weighted.parse("synthetic.dob", "all");
+            addDobRange("all", LocalDate.parse(System.getProperty("synthetic.dobFrom", "1960-01-01")),
+                LocalDate.parse(System.getProperty("synthetic.dobTo", "2008-12-31")), "synthetic.dobTo is before synthetic.dobFrom");
+        }
+    }
+
+    private void addDobRange(String name, LocalDate from, LocalDate to, String error) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException(error);
+        }
+        dobDays.put(name, new long[] {from.toEpochDay(), to.toEpochDay() - from.toEpochDay() + 1});
+    }
+
+    private static String checkField(String property, String field) {
+        String name = field.trim().toLowerCase();
+        if (!FIELDS.contains(name)) {
+            throw new IllegalArgumentException("Invalid " + property + " field: " + field + ", expected one of " + FIELDS);
+        }
+        return name;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && index < rows) {
+            Object[] row = row(index++);
+            if (filter == null || filter.test(row)) {
+                next = row;
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Object[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Object[] row = next;
+        next = null;
+        return row;
+    }
+
+    // The row at the given position, the same for a given seed whatever was generated before it
+    Object[] row(long rowIndex) {
+        SplittableRandom random = new SplittableRandom(mix(seed + rowIndex));
+        String firstName = pick(random, FIRST_NAMES);
+        String lastName = pick(random, LAST_NAMES);
+        String email = (firstName + "." + lastName).toLowerCase() + rowIndex + "@" + pick(random, MAIL_DOMAINS);
+        String gender = genders.pick(random);
+        String mobile = (6 + random.nextInt(4)) + String.format("%09d", random.nextInt(1_000_000_000));
+        long[] dob = dobDays.get(dobRanges.pick(random));
+        String dateOfBirth = LocalDate.ofEpochDay(dob[0] + random.nextLong(dob[1])).format(DATE_FORMAT);
+        String subject = subjects.pick(random);
+        String address = (1 + random.nextInt(999)) + " " + pick(random, STREETS);
+        Object[] row = {valid ? "Valid" : "Invalid", firstName, lastName, email, gender, mobile,
+            dateOfBirth, subject, address, ""};
+
+        if (!valid) {
+            String expectedEmptyField = missingFields.pick(random);
+            row[1 + FIELDS.indexOf(expectedEmptyField.trim().toLowerCase())] = "";
+            row[9] = expectedEmptyField;
+        }
+        return row;
+    }
+
+    // SplitMix64 finalizer, so neighbouring indexes start from unrelated states rather than
+    // shifted copies of one sequence
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    // Values with relative weights, parsed from "a=3,b=1"
+    static class Weighted {
+        private final List<String> values = new ArrayList<>();
+        private final List<Integer> cumulative = new ArrayList<>();
+        private int total;
+
+        static Weighted parse(String property, String spec) {
+            Weighted weighted = new Weighted();
+            for (String entry : spec.split(",")) {
+                if (entry.trim().isEmpty()) {
+                    continue;
+                }
+                int separator = entry.lastIndexOf('=');
+                try {
+                    String value = separator < 0 ? entry.trim() : entry.substring(0, separator).trim();
+                    int weight = separator < 0 ? 1 : Integer.parseInt(entry.substring(separator + 1).trim());
+                    if (value.isEmpty() || weight < 0) {
+                        throw new IllegalArgumentException();
+                    }
+                    if (weight > 0) {
+                        weighted.total += weight;
+                        weighted.values.add(value);
+                        weighted.cumulative.add(weighted.total);
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Invalid " + property + " entry: " + entry);
+                }
+            }
+            if (weighted.total == 0) {
+                throw new IllegalArgumentException("Invalid " + property + ": " + spec);
+            }
+            return weighted;
+        }
+
+        String pick(SplittableRandom random) {
+            int roll = random.nextInt(total);
+            for (int i = 0; i < values.size(); i++) {
+                if (roll < cumulative.get(i)) {
+                    return values.get(i);
+                }
+            }
+            return values.get(values.size() - 1);
+        }
+    }
+}
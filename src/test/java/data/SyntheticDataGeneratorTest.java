@@ -0,0 +1,170 @@
+package data;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+public class SyntheticDataGeneratorTest {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMMM yyyy", Locale.ENGLISH);
+    private static final String[] PROPERTIES = {"synthetic.dob", "synthetic.required", "synthetic.missing"};
+
+    @AfterMethod(alwaysRun = true)
+    public void clearProperties() {
+        for (String property : PROPERTIES) {
+            System.clearProperty(property);
+        }
+    }
+
+    @Test
+    public void rowDependsOnlyOnSeedAndIndex() {
+        SyntheticDataGenerator first = new SyntheticDataGenerator("valid", 100, 7, null);
+        SyntheticDataGenerator second = new SyntheticDataGenerator("valid", 100, 7, null);
+        // Read out of order, as another shard or a cache lookup would
+        Assert.assertEquals(second.row(57), first.row(57));
+        List<Object[]> iterated = drain(new SyntheticDataGenerator("valid", 100, 7, null));
+        Assert.assertEquals(iterated.size(), 100);
+        Assert.assertEquals(iterated.get(57), first.row(57));
+        Assert.assertEquals(iterated.get(0).length, 10);
+    }
+
+    @Test
+    public void seedsAndTestTypesGiveDifferentRows() {
+        Object[] row = new SyntheticDataGenerator("valid", 10, 7, null).row(3);
+        Assert.assertNotEquals(new SyntheticDataGenerator("valid", 10, 8, null).row(3), row);
+        Assert.assertNotEquals(new SyntheticDataGenerator("valid", 10, 7, null).row(4), row);
+        Object[] invalid = new SyntheticDataGenerator("invalid", 10, 7, null).row(3);
+        Assert.assertEquals(invalid[0], "Invalid");
+        Assert.assertNotEquals(Arrays.copyOfRange(invalid, 1, 9), Arrays.copyOfRange(row, 1, 9));
+    }
+
+    @Test
+    public void filterKeepsTheMatchingRowsInOrder() {
+        SyntheticDataGenerator all = new SyntheticDataGenerator("valid", 200, 1, null);
+        List<Object[]> expected = new ArrayList<>();
+        for (long i = 0; i < 200; i++) {
+            Object[] row = all.row(i);
+            if (((String) row[1]).startsWith("A")) {
+                expected.add(row);
+            }
+        }
+        List<Object[]> filtered = drain(new SyntheticDataGenerator("valid", 200, 1, row -> ((String) row[1]).startsWith("A")));
+        Assert.assertFalse(filtered.isEmpty());
+        Assert.assertEquals(filtered.size(), expected.size());
+        for (int i = 0; i < filtered.size(); i++) {
+            Assert.assertEquals(filtered.get(i), expected.get(i));
+        }
+    }
+
+    @Test
+    public void invalidRowsLeaveTheNamedRequiredFieldEmpty() {
+        Map<String, Integer> columns = new HashMap<>();
+        columns.put("First name", 1);
+        columns.put("Last name", 2);
+        columns.put("Gender", 4);
+        columns.put("Mobile", 5);
+        Map<String, Integer> seen = new HashMap<>();
+        for (Object[] row : drain(new SyntheticDataGenerator("invalid", 400, 3, null))) {
+            String missing = (String) row[9];
+            Assert.assertTrue(columns.containsKey(missing), missing);
+            Assert.assertEquals(row[columns.get(missing)], "");
+            seen.merge(missing, 1, Integer::sum);
+        }
+        Assert.assertEquals(seen.keySet(), columns.keySet());
+    }
+
+    @Test
+    public void requiredFieldsAreConfigurable() {
+        System.setProperty("synthetic.required", "First name,Email");
+        System.setProperty("synthetic.missing", "Email=1");
+        for (Object[] row : drain(new SyntheticDataGenerator("invalid", 20, 3, null))) {
+            Assert.assertEquals(row[9], "Email");
+            Assert.assertEquals(row[3], "");
+            Assert.assertNotEquals(row[1], "");
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Invalid synthetic.missing field: Email.*")
+    public void missingFieldMustBeRequired() {
+        System.setProperty("synthetic.missing", "Email=1");
+        new SyntheticDataGenerator("invalid", 1, 3, null);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Invalid synthetic.required field: Hobbies.*")
+    public void requiredFieldMustBeAColumn() {
+        System.setProperty("synthetic.required", "First name,Hobbies");
+        new SyntheticDataGenerator("invalid", 1, 3, null);
+    }
+
+    @Test
+    public void datesOfBirthFollowTheWeightedRanges() {
+        System.setProperty("synthetic.dob", "1960-1969=1,1990-1999=3");
+        int sixties = 0;
+        int nineties = 0;
+        for (Object[] row : drain(new SyntheticDataGenerator("valid", 4000, 5, null))) {
+            int year = LocalDate.parse((String) row[6], DATE_FORMAT).getYear();
+            if (year >= 1960 && year <= 1969) {
+                sixties++;
+            } else if (year >= 1990 && year <= 1999) {
+                nineties++;
+            } else {
+                Assert.fail("Date of birth outside the ranges: " + row[6]);
+            }
+        }
+        Assert.assertTrue(nineties > sixties * 2.5 && nineties < sixties * 3.5, sixties + " vs " + nineties);
+    }
+
+    @Test
+    public void invalidDateRangesAreRejected() {
+        for (String spec : new String[] {"1999-1980=1", "nineties=1", "1990-1999=x"}) {
+            System.setProperty("synthetic.dob", spec);
+            try {
+                new SyntheticDataGenerator("valid", 1, 3, null);
+                Assert.fail("Accepted " + spec);
+            } catch (IllegalArgumentException e) {
+                Assert.assertTrue(e.getMessage().startsWith("Invalid synthetic.dob"), e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void weightedPicksFollowTheirWeights() {
+        SyntheticDataGenerator.Weighted weighted = SyntheticDataGenerator.Weighted.parse("test", "a=3, b=1, c=0,, d");
+        SplittableRandom random = new SplittableRandom(11);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            counts.merge(weighted.pick(random), 1, Integer::sum);
+        }
+        Assert.assertFalse(counts.containsKey("c"));
+        Assert.assertEquals(counts.get("a") / (double) counts.get("b"), 3.0, 0.4);
+        Assert.assertEquals(counts.get("d") / (double) counts.get("b"), 1.0, 0.2);
+    }
+
+    @Test
+    public void malformedWeightsAreRejected() {
+        for (String spec : new String[] {"a=x", "a=-1", "=3", "a=0", ""}) {
+            try {
+                SyntheticDataGenerator.Weighted.parse("synthetic.gender", spec);
+                Assert.fail("Accepted " + spec);
+            } catch (IllegalArgumentException e) {
+                Assert.assertTrue(e.getMessage().startsWith("Invalid synthetic.gender"), e.getMessage());
+            }
+        }
+    }
+
+    private static List<Object[]> drain(SyntheticDataGenerator generator) {
+        List<Object[]> rows = new ArrayList<>();
+        generator.forEachRemaining(rows::add);
+        return rows;
+    }
+}
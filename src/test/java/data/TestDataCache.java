@@ -0,0 +1,105 @@
+package data;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Process-wide cache of parsed sheets, keyed by file path and sheet name and
+// invalidated when the file's modification time changes
+public class TestDataCache {
+
+    private static final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    private static class Entry {
+        final long lastModified;
+        final Sheet sheet;
+
+        Entry(long lastModified, Sheet sheet) {
+            this.lastModified = lastModified;
+            this.sheet = sheet;
+        }
+    }
+
+    // Return the cached sheet, parsing it with the loader only on first use or after the file changed
+    public static Sheet getSheet(String filePath, String sheetName, Supplier<Sheet> loader) {
+        File file = new File(filePath);
+        String key = file.getAbsolutePath() + "|" + sheetName;
+        long lastModified = file.lastModified();
+
+        // compute() blocks concurrent callers for the same key, so parallel providers parse once
+        return cache.compute(key, (k, entry) -> {
+            if (entry != null && entry.lastModified == lastModified) {
+                return entry;
+            }
+            return new Entry(lastModified, loader.get());
+        }).sheet;
+    }
+
+    public static void clear() {
+        cache.clear();
+    }
+
+    // Parsed rows of one sheet with lazily built per-column indexes
+    public static class Sheet {
+
+        private final String[] header;
+        private final List<Object[]> rows;
+        private final Map<Integer, Map<String, Object[][]>> indexes = new ConcurrentHashMap<>();
+
+        public Sheet(String[] header, List<Object[]> rows) {
+            this.header = header;
+            this.rows = Collections.unmodifiableList(new ArrayList<>(rows));
+        }
+
+        public List<Object[]> getRows() {
+            return rows;
+        }
+
+        public int columnIndex(String columnName) {
+            for (int i = 0; i < header.length; i++) {
+                if (header[i] != null && header[i].trim().equalsIgnoreCase(columnName)) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException("Column not found: " + columnName);
+        }
+
+        public Object[][] rowsWhere(String columnName, String value) {
+            return rowsWhere(columnIndex(columnName), value);
+        }
+
+        // Rows whose value in the given column matches, ignoring case
+        public Object[][] rowsWhere(int column, String value) {
+            Object[][] matches = indexes.computeIfAbsent(column, this::buildIndex)
+                .get(value.toLowerCase());
+            if (matches == null) {
+                return new Object[0][0];
+            }
+            // Hand out copies so callers can't alter the cached rows
+            Object[][] copy = new Object[matches.length][];
+            for (int i = 0; i < matches.length; i++) {
+                copy[i] = matches[i].clone();
+            }
+            return copy;
+        }
+
+        private Map<String, Object[][]> buildIndex(int column) {
+            Map<String, List<Object[]>> grouped = new HashMap<>();
+            for (Object[] row : rows) {
+                if (row.length > column && row[column] != null) {
+                    grouped.computeIfAbsent(row[column].toString().toLowerCase(), k -> new ArrayList<>()).add(row);
+                }
+            }
+            Map<String, Object[][]> index = new HashMap<>();
+            for (Map.Entry<String, List<Object[]>> group : grouped.entrySet()) {
+                index.put(group.getKey(), group.getValue().toArray(new Object[0][0]));
+            }
+            return index;
+        }
+    }
+}
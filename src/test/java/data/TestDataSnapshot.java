@@ -0,0 +1,273 @@
+package data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// Compact binary copy of a sheet's rows. It is compiled from the workbook on first use
+// and memory-mapped on later runs, so loading rows needs no POI classes and no XML parsing.
+// The snapshot is rebuilt only when the source workbook's content changes, and mapped and
+// checked once per process while neither file changes.
+//
+// Layout (big endian):
+//   int magic, int version, long sourceLength, long sourceLastModified, long sourceCrc,
+//   long payloadCrc, int rowCount, long indexOffset
+//   payload: rows as (short cellCount, then per cell int byteLength + UTF-8 bytes),
+//            followed by the index of long row offsets
+public class TestDataSnapshot {
+
+    private static final int MAGIC = 0x54445331; // "TDS1"
+    // 2: rows as wide as their last stored cell and formulas as text, as the workbook reader gives them
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 52;
+
+    // Snapshots already mapped in this process, by snapshot path
+    private static final Map<String, Opened> opened = new HashMap<>();
+
+    private final ByteBuffer buffer;
+    private final int rowCount;
+    private final long indexOffset;
+
+    // A mapped snapshot and the file states it was validated against
+    private static class Opened {
+        final long sourceLength;
+        final long sourceLastModified;
+        final FileTime snapshotLastModified;
+        final TestDataSnapshot snapshot;
+
+        Opened(File source, File snapshotFile, TestDataSnapshot snapshot) {
+            this.sourceLength = source.length();
+            this.sourceLastModified = source.lastModified();
+            this.snapshotLastModified = lastModified(snapshotFile);
+            this.snapshot = snapshot;
+        }
+
+        boolean isCurrent(File source, File snapshotFile) {
+            return source.length() == sourceLength && source.lastModified() == sourceLastModified
+                && snapshotLastModified.equals(lastModified(snapshotFile));
+        }
+
+        // Full file system precision, a snapshot rewritten within the same millisecond still counts as changed
+        private static FileTime lastModified(File file) {
+            try {
+                return Files.getLastModifiedTime(file.toPath());
+            } catch (IOException e) {
+                return FileTime.fromMillis(0);
+            }
+        }
+    }
+
+    private TestDataSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.rowCount = buffer.getInt(40);
+        this.indexOffset = buffer.getLong(44);
+    }
+
+    // Map the snapshot for the given sheet, compiling it first when missing or stale
+    public static synchronized TestDataSnapshot open(String sourcePath, String sheetName) {
+        File source = new File(sourcePath);
+        File snapshot = snapshotFile(source, sheetName);
+        String key = snapshot.getAbsolutePath();
+        Opened previous = opened.get(key);
+        if (previous != null && previous.isCurrent(source, snapshot)) {
+            return previous.snapshot;
+        }
+        try {
+            TestDataSnapshot mapped = snapshot.exists() ? map(snapshot, source) : null;
+            if (mapped == null) {
+                compile(source, sheetName, snapshot);
+                mapped = map(snapshot, source);
+                if (mapped == null) {
+                    throw new RuntimeException("Compiled snapshot failed validation: " + snapshot);
+                }
+            }
+            opened.put(key, new Opened(source, snapshot, mapped));
+            return mapped;
+        } catch (IOException e) {
+            throw new RuntimeException("Error loading test data snapshot: " + snapshot, e);
+        }
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public Object[] row(int index) {
+        if (index < 0 || index >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + index + " of " + rowCount);
+        }
+        int offset = (int) buffer.getLong((int) indexOffset + index * 8);
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        Object[] row = new Object[view.getShort()];
+        for (int i = 0; i < row.length; i++) {
+            byte[] bytes = new byte[view.getInt()];
+            view.get(bytes);
+            row[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return row;
+    }
+
+    // Rows matching the filter, decoded one at a time as the caller iterates
+    public Iterator<Object[]> rows(Predicate<Object[]> filter) {
+        return new Iterator<Object[]>() {
+            private int index;
+            private Object[] next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && index < rowCount) {
+                    Object[] candidate = row(index++);
+                    if (filter == null || filter.test(candidate)) {
+                        next = candidate;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Object[] row = next;
+                next = null;
+                return row;
+            }
+        };
+    }
+
+    static File snapshotFile(File source, String sheetName) {
+        String dir = System.getProperty("testdata.snapshotDir", System.getProperty("user.dir") + "/target/testdata");
+        String name = source.getName().replaceAll("\\.xlsx?$", "") + "-" + sheetName.replaceAll("[^A-Za-z0-9]", "_") + ".snap";
+        return new File(dir, name);
+    }
+
+    // Returns null when the snapshot is corrupt, from another format version, or built from different source content
+    private static TestDataSnapshot map(File snapshot, File source) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = new RandomAccessFile(snapshot, "r").getChannel()) {
+            if (channel.size() < HEADER_SIZE) {
+                return null;
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            return null;
+        }
+
+        // Size and timestamp match is the fast path, otherwise fall back to comparing content
+        boolean touched = buffer.getLong(8) != source.length() || buffer.getLong(16) != source.lastModified();
+        if (touched && (!source.exists() || buffer.getLong(24) != fileCrc(source))) {
+            return null;
+        }
+
+        CRC32 crc = new CRC32();
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(HEADER_SIZE);
+        crc.update(payload);
+        if (crc.getValue() != buffer.getLong(32)) {
+            System.err.println("Test data snapshot checksum mismatch, rebuilding: " + snapshot);
+            return null;
+        }
+        if (touched) {
+            // Same content under a new timestamp: record it, so later runs take the fast path again
+            try (RandomAccessFile file = new RandomAccessFile(snapshot, "rw")) {
+                file.seek(8);
+                file.writeLong(source.length());
+                file.writeLong(source.lastModified());
+            }
+        }
+        return new TestDataSnapshot(buffer);
+    }
+
+    // Stream the sheet rows straight into a temp file, then move it into place
+    private static void compile(File source, String sheetName, File snapshot) throws IOException {
+        File dir = snapshot.getAbsoluteFile().getParentFile();
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+        File temp = File.createTempFile(snapshot.getName(), ".tmp", dir);
+        List<Long> offsets = new ArrayList<>();
+        CRC32 payloadCrc = new CRC32();
+        long position = HEADER_SIZE;
+
+        try (FileOutputStream fos = new FileOutputStream(temp)) {
+            fos.write(new byte[HEADER_SIZE]);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(fos, payloadCrc)));
+
+            try (StreamingExcelReader reader = new StreamingExcelReader(source.getPath(), sheetName, null)) {
+                while (reader.hasNext()) {
+                    Object[] row = reader.next();
+                    offsets.add(position);
+                    out.writeShort(row.length);
+                    position += 2;
+                    for (Object cell : row) {
+                        byte[] bytes = String.valueOf(cell).getBytes(StandardCharsets.UTF_8);
+                        out.writeInt(bytes.length);
+                        out.write(bytes);
+                        position += 4 + bytes.length;
+                    }
+                }
+            }
+            long indexOffset = position;
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION)
+                .putLong(source.length()).putLong(source.lastModified()).putLong(fileCrc(source))
+                .putLong(payloadCrc.getValue()).putInt(offsets.size()).putLong(indexOffset);
+            header.flip();
+            fos.getChannel().write(header, 0);
+        }
+        Files.move(temp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.println("Compiled test data snapshot: " + snapshot + " (" + offsets.size() + " rows)");
+    }
+
+    private static long fileCrc(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[64 * 1024];
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                crc.update(chunk, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+
+    // Build step entry point: TestDataSnapshot <workbook.xlsx> <sheet name>
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: TestDataSnapshot <workbook.xlsx> <sheet name>");
+            System.exit(1);
+        }
+        TestDataSnapshot snapshot = open(args[0], args[1]);
+        System.out.println("Snapshot ready with " + snapshot.rowCount() + " rows");
+    }
+}
@@ -0,0 +1,144 @@
+package data;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.CRC32;
+
+public class TestDataSnapshotTest {
+
+    private static final String SHEET = "Test Data";
+
+    private File workbook;
+    private File snapshot;
+
+    @BeforeMethod
+    public void createWorkbook() throws IOException {
+        workbook = File.createTempFile("SnapshotTest-", ".xlsx");
+        writeWorkbook(workbook, "Aryan", "Sharma");
+        snapshot = TestDataSnapshot.snapshotFile(workbook, SHEET);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteFiles() {
+        workbook.delete();
+        snapshot.delete();
+    }
+
+    @Test
+    public void compiledRowsMatchTheWorkbook() {
+        TestDataSnapshot data = TestDataSnapshot.open(workbook.getPath(), SHEET);
+        Assert.assertEquals(data.rowCount(), 2);
+        Assert.assertEquals(data.row(0), new Object[] {"Valid", "Aryan", "", "1234567890"});
+        Assert.assertEquals(data.row(1), new Object[] {"Invalid", "", "Sharma", "1234567891"});
+
+        List<Object[]> invalid = new ArrayList<>();
+        for (Iterator<Object[]> rows = data.rows(row -> "Invalid".equals(row[0])); rows.hasNext();) {
+            invalid.add(rows.next());
+        }
+        Assert.assertEquals(invalid.size(), 1);
+        Assert.assertEquals(invalid.get(0)[2], "Sharma");
+    }
+
+    @Test
+    public void headerRecordsSourceAndPayloadChecksums() throws IOException {
+        TestDataSnapshot.open(workbook.getPath(), SHEET);
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(snapshot.toPath()));
+        Assert.assertEquals(bytes.getInt(0), 0x54445331);
+        Assert.assertEquals(bytes.getInt(4), 2);
+        Assert.assertEquals(bytes.getLong(8), workbook.length());
+        Assert.assertEquals(bytes.getLong(16), workbook.lastModified());
+        Assert.assertEquals(bytes.getLong(24), crc(Files.readAllBytes(workbook.toPath()), 0));
+        Assert.assertEquals(bytes.getLong(32), crc(bytes.array(), 52));
+        Assert.assertEquals(bytes.getInt(40), 2);
+    }
+
+    @Test
+    public void corruptPayloadIsRebuilt() throws IOException {
+        TestDataSnapshot.open(workbook.getPath(), SHEET);
+        try (RandomAccessFile file = new RandomAccessFile(snapshot, "rw")) {
+            file.seek(60);
+            file.write(file.read() ^ 0xff);
+        }
+        TestDataSnapshot data = TestDataSnapshot.open(workbook.getPath(), SHEET);
+        Assert.assertEquals(data.row(0)[1], "Aryan");
+        Assert.assertEquals(data.row(1)[2], "Sharma");
+    }
+
+    @Test
+    public void changedWorkbookContentIsRecompiled() throws IOException {
+        TestDataSnapshot.open(workbook.getPath(), SHEET);
+        writeWorkbook(workbook, "Aditi", "Verma");
+        TestDataSnapshot data = TestDataSnapshot.open(workbook.getPath(), SHEET);
+        Assert.assertEquals(data.row(0)[1], "Aditi");
+        Assert.assertEquals(data.row(1)[2], "Verma");
+    }
+
+    @Test
+    public void touchedButUnchangedWorkbookKeepsTheSnapshot() throws IOException {
+        TestDataSnapshot.open(workbook.getPath(), SHEET);
+        long compiledFor = workbook.lastModified();
+        Assert.assertTrue(workbook.setLastModified(compiledFor - 60_000));
+        TestDataSnapshot data = TestDataSnapshot.open(workbook.getPath(), SHEET);
+        Assert.assertEquals(data.row(0)[1], "Aryan");
+        // Content CRC matched: the payload is kept and the header takes the new timestamp, so the
+        // next run doesn't checksum the workbook again
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(snapshot.toPath()));
+        Assert.assertEquals(header.getLong(16), compiledFor - 60_000);
+        Assert.assertEquals(header.getInt(40), 2);
+    }
+
+    @Test
+    public void openIsCachedWhileNeitherFileChanges() throws IOException {
+        TestDataSnapshot first = TestDataSnapshot.open(workbook.getPath(), SHEET);
+        Assert.assertSame(TestDataSnapshot.open(workbook.getPath(), SHEET), first);
+        Assert.assertTrue(workbook.setLastModified(workbook.lastModified() - 60_000));
+        TestDataSnapshot touched = TestDataSnapshot.open(workbook.getPath(), SHEET);
+        Assert.assertNotSame(touched, first);
+        Assert.assertSame(TestDataSnapshot.open(workbook.getPath(), SHEET), touched);
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void rowOutsideTheSnapshotIsRejected() {
+        TestDataSnapshot.open(workbook.getPath(), SHEET).row(2);
+    }
+
+    private static void writeWorkbook(File file, String firstName, String lastName) throws IOException {
+        try (XSSFWorkbook book = new XSSFWorkbook(); FileOutputStream out = new FileOutputStream(file)) {
+            Sheet sheet = book.createSheet(SHEET);
+            addRow(sheet, 0, "TestType", "FirstName", "LastName", "Mobile");
+            addRow(sheet, 1, "Valid", firstName, "", "1234567890");
+            addRow(sheet, 2, "Invalid", "", lastName, "1234567891");
+            book.write(out);
+        }
+    }
+
+    private static void addRow(Sheet sheet, int index, String... values) {
+        Row row = sheet.createRow(index);
+        for (int i = 0; i < values.length; i++) {
+            if (!values[i].isEmpty()) {
+                row.createCell(i).setCellValue(values[i]);
+            }
+        }
+    }
+
+    private static long crc(byte[] bytes, int from) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, from, bytes.length - from);
+        return crc.getValue();
+    }
+}
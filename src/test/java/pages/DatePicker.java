@@ -0,0 +1,152 @@
+package pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import utils.BrowserWaits;
+import utils.StepTimer;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+// react-datepicker bound to a text input. select() drives the calendar widget but goes straight
+// to the target day with one locator; setDirect() types the date into the input without
+// opening the calendar, for tests that don't cover the widget itself.
+public class DatePicker {
+
+    // Formats accepted from test data, e.g. "15 January 1990" or "15 Jan 1990"
+    private static final DateTimeFormatter[] INPUT_FORMATS = {
+        DateTimeFormatter.ofPattern("d MMMM yyyy", Locale.ENGLISH),
+        DateTimeFormatter.ofPattern("d MMM yyyy", Locale.ENGLISH)
+    };
+    // Format the input itself displays and parses
+    private static final DateTimeFormatter FIELD_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy", Locale.ENGLISH);
+
+    // Set the month and year selects as a user would, via the native setter and a change event
+    private static final String SELECT_MONTH_YEAR_SCRIPT =
+        "function choose(select, value) {"
+        + "  if (!select) return false;"
+        + "  if (select.value !== String(value)) {"
+        + "    Object.getOwnPropertyDescriptor(HTMLSelectElement.prototype, 'value').set.call(select, String(value));"
+        + "    select.dispatchEvent(new Event('change', {bubbles: true}));"
+        + "  }"
+        + "  return true;"
+        + "}"
+        + "return choose(document.querySelector('.react-datepicker__year-select'), arguments[1])"
+        + "  && choose(document.querySelector('.react-datepicker__month-select'), arguments[0]);";
+
+    // Focus the input, replace its text and let the component parse it, close the calendar and
+    // blur so the component re-renders the input from the date it actually selected; that value
+    // is returned once it has stayed the same for two rendered frames, as BrowserWaits judges a
+    // finished scroll. Focus and blur are dispatched by hand when the window doesn't have focus,
+    // since focus() and blur() are then silently ignored.
+    private static final String SET_DIRECT_SCRIPT =
+        "var input = arguments[0], done = arguments[arguments.length - 1];"
+        + "input.focus();"
+        + "if (document.activeElement !== input) {"
+        + "  input.dispatchEvent(new FocusEvent('focus'));"
+        + "  input.dispatchEvent(new FocusEvent('focusin', {bubbles: true}));"
+        + "}"
+        + "Object.getOwnPropertyDescriptor(HTMLInputElement.prototype, 'value').set.call(input, arguments[1]);"
+        + "input.dispatchEvent(new Event('input', {bubbles: true}));"
+        + "input.dispatchEvent(new Event('change', {bubbles: true}));"
+        + "input.dispatchEvent(new KeyboardEvent('keydown', {key: 'Escape', bubbles: true}));"
+        + "if (document.activeElement === input) {"
+        + "  input.blur();"
+        + "} else {"
+        + "  input.dispatchEvent(new FocusEvent('blur'));"
+        + "  input.dispatchEvent(new FocusEvent('focusout', {bubbles: true}));"
+        + "}"
+        + "var last = null, stable = 0;"
+        + "function tick() {"
+        + "  if (input.value === last) { if (++stable >= 2) { done(last); return; } } else { stable = 0; last = input.value; }"
+        + "  requestAnimationFrame(tick);"
+        + "}"
+        + "requestAnimationFrame(tick);";
+
+    // True once the calendar header shows the month and the target day cell exists
+    private static final String MONTH_SHOWN_CONDITION =
+        "var header = document.querySelector('.react-datepicker__current-month');"
+        + "return !!header && header.textContent.trim() === args[0] && !!document.querySelector(args[1]);";
+
+    private final WebDriver driver;
+    private final WebElement input;
+    private final BrowserWaits waits;
+
+    public DatePicker(WebDriver driver, WebElement input, BrowserWaits waits) {
+        this.driver = driver;
+        this.input = input;
+        this.waits = waits;
+    }
+
+    public static LocalDate parseDate(String date) {
+        for (DateTimeFormatter format : INPUT_FORMATS) {
+            try {
+                return LocalDate.parse(date.trim(), format);
+            } catch (DateTimeParseException e) {
+                // try the next format
+            }
+        }
+        throw new IllegalArgumentException("Invalid date: " + date);
+    }
+
+    // The date as the input displays it, e.g. "05 Jan 1990"
+    public static String fieldValue(LocalDate date) {
+        return FIELD_FORMAT.format(date);
+    }
+
+    // Open the calendar, jump to the month and year, and click the day
+    public void select(String date) {
+        select(parseDate(date));
+    }
+
+    public void select(LocalDate date) {
+        StepTimer.time("DatePicker.select", () -> {
+            JavascriptExecutor js = (JavascriptExecutor) driver;
+            waits.scrollIntoView(input);
+            // JavaScript click avoids interception by the ads around the field
+            js.executeScript("arguments[0].click();", input);
+            if (!waits.visible(".react-datepicker__month-select")) {
+                throw new RuntimeException("Date picker did not open");
+            }
+
+            if (!Boolean.TRUE.equals(js.executeScript(SELECT_MONTH_YEAR_SCRIPT, date.getMonthValue() - 1, date.getYear()))) {
+                throw new RuntimeException("Date picker month or year select not found");
+            }
+
+            String monthHeader = date.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH) + " " + date.getYear();
+            String daySelector = daySelector(date);
+            if (!waits.until(MONTH_SHOWN_CONDITION, monthHeader, daySelector)) {
+                throw new RuntimeException("Date picker did not show " + monthHeader);
+            }
+            driver.findElement(By.cssSelector(daySelector)).click();
+        });
+    }
+
+    // Type the date into the input without opening the calendar; returns true if the component
+    // selected that date, judged by what it shows once the input has lost focus
+    public boolean setDirect(String date) {
+        return setDirect(parseDate(date));
+    }
+
+    public boolean setDirect(LocalDate date) {
+        return StepTimer.time("DatePicker.setDirect", () -> {
+            String expected = fieldValue(date);
+            // A rejected or reformatted date shows up here as the previous selection or another text
+            Object value = ((JavascriptExecutor) driver).executeAsyncScript(SET_DIRECT_SCRIPT, input, expected);
+            return expected.equals(value);
+        });
+    }
+
+    // Day cells carry a zero-padded day class, e.g. react-datepicker__day--007; the
+    // outside-month filter skips the trailing days of the neighbouring months
+    private static String daySelector(LocalDate date) {
+        return String.format(".react-datepicker__month .react-datepicker__day--%03d:not(.react-datepicker__day--outside-month)",
+            date.getDayOfMonth());
+    }
+}
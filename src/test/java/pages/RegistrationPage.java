@@ -1,6 +1,5 @@
 package pages;
 
-import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
@@ -10,14 +9,157 @@ import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.asserts.SoftAssert;
 
+import utils.BrowserWaits;
+import utils.StepTimer;
+
 import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class RegistrationPage {
     
     private WebDriver driver;
     private WebDriverWait wait;
+    private BrowserWaits waits;
+    private DatePicker datePicker;
     private SoftAssert softAssert;
+    // Fast fill sets the plain text fields and gender in one script call instead of typing them.
+    // Defaults to -Dform.fillMode=fast|typed (typed when unset); tests can override per page.
+    private boolean fastFill = "fast".equalsIgnoreCase(System.getProperty("form.fillMode"));
+    // Reset the loaded form in place between rows instead of reloading the page.
+    // Defaults to -Dsession.reuse=true|false; tests can override per page.
+    private boolean resetInPlace = Boolean.getBoolean("session.reuse");
+    // Success-modal table read by getSubmittedValues(), valid until the next navigation or submit
+    private Map<String, String> submittedValues;
+    
+    private static final String SUBMITTED_VALUES_SCRIPT =
+        "var values = {};"
+        + "document.querySelectorAll('.modal-content table tbody tr').forEach(function (row) {"
+        + "  var cells = row.querySelectorAll('td');"
+        + "  if (cells.length >= 2) { values[cells[0].textContent.trim()] = cells[1].innerText.trim(); }"
+        + "});"
+        + "return values;";
+    
+    // Sets values through the native value setter so React's onChange sees them,
+    // clicks the gender radio, and reports which fields were missing and the radio state
+    private static final String FAST_FILL_SCRIPT =
+        "var values = arguments[0], genderId = arguments[1], missing = [];"
+        + "Object.keys(values).forEach(function (id) {"
+        + "  var el = document.getElementById(id);"
+        + "  if (!el) { missing.push(id); return; }"
+        + "  var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;"
+        + "  Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, values[id]);"
+        + "  el.dispatchEvent(new Event('input', {bubbles: true}));"
+        + "  el.dispatchEvent(new Event('change', {bubbles: true}));"
+        + "});"
+        + "var genderChecked = null;"
+        + "if (genderId) {"
+        + "  var radio = document.getElementById(genderId);"
+        + "  if (radio) { if (!radio.checked) { radio.click(); } genderChecked = radio.checked; } else { missing.push(genderId); }"
+        + "}"
+        + "return {missing: missing, genderChecked: genderChecked};";
+    
+    // Closes the success modal, clears every field back to its freshly loaded state, then checks
+    // the result and reports what is still dirty. React owns the form's was-validated class, so
+    // validation styling stays on once the form has been submitted in this page load.
+    private static final String RESET_FORM_SCRIPT =
+        "var url = arguments[0], today = arguments[1], done = arguments[arguments.length - 1];"
+        + "var textIds = ['firstName', 'lastName', 'userEmail', 'userNumber', 'currentAddress'];"
+        + "if (location.href.split('#')[0] !== url.split('#')[0] || !document.getElementById('userForm')) {"
+        + "  done({reset: false, problems: ['not on the form page']}); return;"
+        + "}"
+        + "function setValue(el, value) {"
+        + "  var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;"
+        + "  Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, value);"
+        + "  el.dispatchEvent(new Event('input', {bubbles: true}));"
+        + "  el.dispatchEvent(new Event('change', {bubbles: true}));"
+        + "}"
+        + "function clear() {"
+        + "  textIds.forEach(function (id) { var el = document.getElementById(id); if (el && el.value !== '') { setValue(el, ''); } });"
+        + "  document.querySelectorAll('#userForm input[type=radio], #userForm input[type=checkbox]').forEach(function (el) {"
+        + "    if (el.checked) { el.checked = false; el.dispatchEvent(new Event('change', {bubbles: true})); }"
+        + "  });"
+        + "  var clearSubjects = document.querySelector('.subjects-auto-complete__clear-indicator');"
+        + "  if (clearSubjects) { clearSubjects.dispatchEvent(new MouseEvent('mousedown', {bubbles: true, button: 0})); }"
+        + "  var dob = document.getElementById('dateOfBirthInput');"
+        + "  if (dob && dob.value !== today) {"
+        + "    setValue(dob, today);"
+        + "    dob.dispatchEvent(new KeyboardEvent('keydown', {key: 'Escape', bubbles: true}));"
+        + "    dob.blur();"
+        + "  }"
+        + "  window.scrollTo(0, 0);"
+        + "}"
+        + "function verify() {"
+        + "  var problems = [];"
+        + "  textIds.forEach(function (id) { var el = document.getElementById(id); if (!el || el.value !== '') { problems.push(id); } });"
+        + "  document.querySelectorAll('#userForm input[type=radio], #userForm input[type=checkbox]').forEach(function (el) {"
+        + "    if (el.checked) { problems.push(el.id); }"
+        + "  });"
+        + "  if (document.querySelector('.subjects-auto-complete__multi-value')) { problems.push('subjectsInput'); }"
+        + "  var dob = document.getElementById('dateOfBirthInput');"
+        + "  if (!dob || dob.value !== today) { problems.push('dateOfBirthInput'); }"
+        + "  if (document.querySelector('.modal-content')) { problems.push('modal'); }"
+        + "  return problems;"
+        + "}"
+        + "var started = Date.now();"
+        + "var close = document.getElementById('closeLargeModal');"
+        + "if (close) { close.click(); }"
+        + "(function whenModalClosed() {"
+        + "  if (!document.querySelector('.modal-content')) {"
+        + "    clear();"
+        + "    requestAnimationFrame(function () { var problems = verify(); done({reset: problems.length === 0, problems: problems}); });"
+        + "  } else if (Date.now() - started > 5000) {"
+        + "    done({reset: false, problems: ['modal did not close']});"
+        + "  } else {"
+        + "    requestAnimationFrame(whenModalClosed);"
+        + "  }"
+        + "})();";
+    
+    // Form field ids by the names used in the test data, read by captureValidationState()
+    private static final Map<String, String> VALIDATION_FIELD_IDS = new LinkedHashMap<>();
+    static {
+        VALIDATION_FIELD_IDS.put("first name", "firstName");
+        VALIDATION_FIELD_IDS.put("last name", "lastName");
+        VALIDATION_FIELD_IDS.put("email", "userEmail");
+        VALIDATION_FIELD_IDS.put("gender", "gender-radio-1");
+        VALIDATION_FIELD_IDS.put("mobile", "userNumber");
+        VALIDATION_FIELD_IDS.put("date of birth", "dateOfBirthInput");
+        VALIDATION_FIELD_IDS.put("subjects", "subjectsInput");
+        VALIDATION_FIELD_IDS.put("address", "currentAddress");
+    }
+    
+    // Waits for any running border transitions on the fields to finish, then returns
+    // computed colours and HTML5 validity for every field (null for missing ones)
+    private static final String VALIDATION_STATE_SCRIPT =
+        "var ids = arguments[0], done = arguments[arguments.length - 1];"
+        + "var names = Object.keys(ids), running = [];"
+        + "names.forEach(function (name) {"
+        + "  var el = document.getElementById(ids[name]);"
+        + "  if (el && el.getAnimations) { running = running.concat(el.getAnimations()); }"
+        + "});"
+        + "function read() {"
+        + "  var result = {};"
+        + "  names.forEach(function (name) {"
+        + "    var el = document.getElementById(ids[name]);"
+        + "    if (!el) { result[name] = null; return; }"
+        + "    var style = getComputedStyle(el);"
+        + "    var label = document.querySelector('label[for=\"' + el.id + '\"]');"
+        + "    result[name] = {"
+        + "      borderTopColor: style.borderTopColor, borderRightColor: style.borderRightColor,"
+        + "      borderBottomColor: style.borderBottomColor, borderLeftColor: style.borderLeftColor,"
+        + "      labelColor: label ? getComputedStyle(label).color : '',"
+        + "      valid: el.validity ? el.validity.valid : true,"
+        + "      validationMessage: el.validationMessage || '',"
+        + "      value: el.value"
+        + "    };"
+        + "  });"
+        + "  done(result);"
+        + "}"
+        + "if (running.length === 0) { read(); }"
+        + "else { Promise.all(running.map(function (a) { return a.finished.catch(function () {}); })).then(read); }";
     
     // Locators for required fields
     @FindBy(id = "firstName")
@@ -55,15 +197,6 @@ public class RegistrationPage {
     @FindBy(id = "dateOfBirthInput")
     private WebElement dateOfBirthField;
     
-    @FindBy(className = "react-datepicker__month-select")
-    private WebElement monthDropdown;
-    
-    @FindBy(className = "react-datepicker__year-select")
-    private WebElement yearDropdown;
-    
-    @FindBy(className = "react-datepicker__day")
-    private List<WebElement> dayElements;
-    
     @FindBy(id = "subjectsInput")
     private WebElement subjectsField;
     
@@ -83,100 +216,216 @@ public class RegistrationPage {
     // Constructor
     public RegistrationPage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        // Short polling interval for the remaining driver-side waits, most return on the first check
+        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10), Duration.ofMillis(50));
+        this.waits = new BrowserWaits(driver, Duration.ofSeconds(10));
         this.softAssert = new SoftAssert();
         PageFactory.initElements(driver, this);
+        this.datePicker = new DatePicker(driver, dateOfBirthField, waits);
     }
     
     // Navigate to registration page
     public void navigateToRegistrationPage(String url) {
-        driver.get(url);
+        StepTimer.time("navigateToRegistrationPage", () -> {
+            submittedValues = null;
+            driver.get(url);
+        });
+    }
+    
+    public void setResetInPlace(boolean resetInPlace) {
+        this.resetInPlace = resetInPlace;
+    }
+    
+    // Start a row on a clean form: reset the loaded page in place when session reuse is on,
+    // and load it from the url otherwise or if the reset can't be verified. Returns true if
+    // the page was reused.
+    public boolean openRegistrationForm(String url) {
+        return StepTimer.time("openRegistrationForm", () -> {
+            if (resetInPlace && resetForm(url)) {
+                return true;
+            }
+            navigateToRegistrationPage(url);
+            return false;
+        });
+    }
+    
+    // Close the success modal and clear the form in place, true once the reset is verified
+    @SuppressWarnings("unchecked")
+    public boolean resetForm(String url) {
+        try {
+            return StepTimer.time("resetForm", () -> {
+                submittedValues = null;
+                String today = DatePicker.fieldValue(LocalDate.now());
+                Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver)
+                    .executeAsyncScript(RESET_FORM_SCRIPT, url, today);
+                if (Boolean.TRUE.equals(result.get("reset"))) {
+                    return true;
+                }
+                System.out.println("Form reset not verified, reloading the page: " + result.get("problems"));
+                return false;
+            });
+        } catch (Exception e) {
+            System.out.println("Error resetting form, reloading the page: " + e.getMessage());
+            return false;
+        }
     }
     
     // Scroll to first name field
     public void scrollToFirstNameField() {
         try {
-            wait.until(ExpectedConditions.visibilityOf(firstNameField));
-            JavascriptExecutor js = (JavascriptExecutor) driver;
-            js.executeScript("arguments[0].scrollIntoView({behavior: 'smooth', block: 'center'});", firstNameField);
-            // Small delay to ensure scroll completes
-//            Thread.sleep(500);
+            StepTimer.time("scrollToFirstNameField", () -> {
+                waits.visible(firstNameField);
+                // Returns once the smooth scroll has come to rest
+                waits.scrollIntoView(firstNameField);
+            });
         } catch (Exception e) {
         	
             System.out.println("Error scrolling to first name field: " + e.getMessage());
         }
     }
     
+    public void setFastFill(boolean fastFill) {
+        this.fastFill = fastFill;
+    }
+    
     // Fill registration form with all fields
     public void fillRegistrationForm(String firstName, String lastName, 
                                    String email, String gender, String mobile, 
                                    String dateOfBirth, String subjects, String address) {
-        // Scroll to first name field first
-        scrollToFirstNameField();
+        StepTimer.time("fillRegistrationForm", () -> {
+            if (fastFill) {
+                fastFillTextFields(firstName, lastName, email, gender, mobile, address);
+                // The date is typed in directly, the autocomplete still needs real interaction
+                setDateOfBirthDirect(dateOfBirth);
+                setSubjects(subjects);
+                return;
+            }
+            
+            // Scroll to first name field first
+            scrollToFirstNameField();
         
-        setFirstName(firstName);
-        setLastName(lastName);
-        setEmail(email);
-        setGender(gender);
-        setMobileNumber(mobile);
-        setDateOfBirth(dateOfBirth);
-        setSubjects(subjects);
-        setCurrentAddress(address);
+            setFirstName(firstName);
+            setLastName(lastName);
+            setEmail(email);
+            setGender(gender);
+            setMobileNumber(mobile);
+            setDateOfBirth(dateOfBirth);
+            setSubjects(subjects);
+            setCurrentAddress(address);
+        });
+    }
+    
+    // Set the plain text inputs and gender in a single round trip. Blank values are left
+    // untouched, as in the typed path, so negative rows keep their empty field.
+    public void fastFillTextFields(String firstName, String lastName, String email,
+                                   String gender, String mobile, String address) {
+        StepTimer.time("fastFillTextFields", () -> {
+            Map<String, String> values = new LinkedHashMap<>();
+            putIfPresent(values, "firstName", firstName);
+            putIfPresent(values, "lastName", lastName);
+            putIfPresent(values, "userEmail", email);
+            putIfPresent(values, "userNumber", mobile);
+            putIfPresent(values, "currentAddress", address);
+            String genderId = null;
+            if (gender != null && !gender.trim().isEmpty()) {
+                genderId = genderRadioId(gender);
+            }
+            
+            JavascriptExecutor js = (JavascriptExecutor) driver;
+            @SuppressWarnings("unchecked")
+            Map<String, Object> result = (Map<String, Object>) js.executeScript(FAST_FILL_SCRIPT, values, genderId);
+            
+            List<?> missing = (List<?>) result.get("missing");
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException("Form fields not found for fast fill: " + missing);
+            }
+            if (genderId != null) {
+                softAssert.assertTrue(Boolean.TRUE.equals(result.get("genderChecked")),
+                    gender.substring(0, 1).toUpperCase() + gender.substring(1).toLowerCase() + " gender should be selected");
+            }
+        });
+    }
+    
+    private void putIfPresent(Map<String, String> values, String id, String value) {
+        if (value != null && !value.trim().isEmpty()) {
+            values.put(id, value);
+        }
+    }
+    
+    private String genderRadioId(String gender) {
+        switch (gender.toLowerCase()) {
+            case "male":
+                return "gender-radio-1";
+            case "female":
+                return "gender-radio-2";
+            case "other":
+                return "gender-radio-3";
+            default:
+                throw new IllegalArgumentException("Invalid gender: " + gender);
+        }
     }
     
     // Individual field methods
     public void setFirstName(String firstName) {
-        if (firstName != null && !firstName.trim().isEmpty()) {
-            wait.until(ExpectedConditions.elementToBeClickable(firstNameField));
-            firstNameField.clear();
-            firstNameField.sendKeys(firstName);
-        }
+        StepTimer.time("setFirstName", () -> {
+            if (firstName != null && !firstName.trim().isEmpty()) {
+                wait.until(ExpectedConditions.elementToBeClickable(firstNameField));
+                firstNameField.clear();
+                firstNameField.sendKeys(firstName);
+            }
+        });
     }
 
     public void setLastName(String lastName) {
-        if (lastName != null && !lastName.trim().isEmpty()) {
-            wait.until(ExpectedConditions.elementToBeClickable(lastNameField));
-            lastNameField.clear();
-            lastNameField.sendKeys(lastName);
-        }
+        StepTimer.time("setLastName", () -> {
+            if (lastName != null && !lastName.trim().isEmpty()) {
+                wait.until(ExpectedConditions.elementToBeClickable(lastNameField));
+                lastNameField.clear();
+                lastNameField.sendKeys(lastName);
+            }
+        });
     }
 
     public void setEmail(String email) {
-        if (email != null && !email.trim().isEmpty()) {
-            wait.until(ExpectedConditions.elementToBeClickable(emailField));
-            emailField.clear();
-            emailField.sendKeys(email);
-        }
+        StepTimer.time("setEmail", () -> {
+            if (email != null && !email.trim().isEmpty()) {
+                wait.until(ExpectedConditions.elementToBeClickable(emailField));
+                emailField.clear();
+                emailField.sendKeys(email);
+            }
+        });
     }
 
     // Set gender method - updated to click labels with soft assertion
     public void setGender(String gender) {
-        if (gender != null && !gender.trim().isEmpty()) {
-            wait.until(ExpectedConditions.elementToBeClickable(maleGenderLabel));
+        StepTimer.time("setGender", () -> {
+            if (gender != null && !gender.trim().isEmpty()) {
+                wait.until(ExpectedConditions.elementToBeClickable(maleGenderLabel));
             
-            switch (gender.toLowerCase()) {
-                case "male":
-                    wait.until(ExpectedConditions.elementToBeClickable(maleGenderLabel));
-                    maleGenderLabel.click();
-                    // Verify gender is selected using soft assertion
-                    verifyGenderSelected("male");
-                    break;
-                case "female":
-                    wait.until(ExpectedConditions.elementToBeClickable(femaleGenderLabel));
-                    femaleGenderLabel.click();
-                    // Verify gender is selected using soft assertion
-                    verifyGenderSelected("female");
-                    break;
-                case "other":
-                    wait.until(ExpectedConditions.elementToBeClickable(otherGenderLabel));
-                    otherGenderLabel.click();
-                    // Verify gender is selected using soft assertion
-                    verifyGenderSelected("other");
-                    break;
-                default:
-                    throw new IllegalArgumentException("Invalid gender: " + gender);
+                switch (gender.toLowerCase()) {
+                    case "male":
+                        wait.until(ExpectedConditions.elementToBeClickable(maleGenderLabel));
+                        maleGenderLabel.click();
+                        // Verify gender is selected using soft assertion
+                        verifyGenderSelected("male");
+                        break;
+                    case "female":
+                        wait.until(ExpectedConditions.elementToBeClickable(femaleGenderLabel));
+                        femaleGenderLabel.click();
+                        // Verify gender is selected using soft assertion
+                        verifyGenderSelected("female");
+                        break;
+                    case "other":
+                        wait.until(ExpectedConditions.elementToBeClickable(otherGenderLabel));
+                        otherGenderLabel.click();
+                        // Verify gender is selected using soft assertion
+                        verifyGenderSelected("other");
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Invalid gender: " + gender);
+                }
             }
-        }
+        });
     }
 
     // Verify gender selection using soft assertion
@@ -212,98 +461,86 @@ public class RegistrationPage {
     }
 
     public void setMobileNumber(String mobile) {
-        if (mobile != null && !mobile.trim().isEmpty()) {
-            wait.until(ExpectedConditions.elementToBeClickable(mobileField));
-            mobileField.clear();
-            mobileField.sendKeys(mobile);
-        }
+        StepTimer.time("setMobileNumber", () -> {
+            if (mobile != null && !mobile.trim().isEmpty()) {
+                wait.until(ExpectedConditions.elementToBeClickable(mobileField));
+                mobileField.clear();
+                mobileField.sendKeys(mobile);
+            }
+        });
     }
 
     public void setDateOfBirth(String dateOfBirth) {
-        if (dateOfBirth != null && !dateOfBirth.trim().isEmpty()) {
-        	wait.until(ExpectedConditions.elementToBeClickable(dateOfBirthField));
-            
-            // Scroll to the date field first
-            JavascriptExecutor js = (JavascriptExecutor) driver;
-            js.executeScript("arguments[0].scrollIntoView({behavior: 'smooth', block: 'center'});", dateOfBirthField);
-//            Thread.sleep(500);
-            
-            // Use JavaScript click to avoid element interception
-            js.executeScript("arguments[0].click();", dateOfBirthField);
-            // Wait for date picker to appear
-            wait.until(ExpectedConditions.visibilityOf(monthDropdown));
-            
-            // Parse date string (format: "15 January 1990")
-            String[] dateParts = dateOfBirth.split(" ");
-            String day = dateParts[0];
-            String month = dateParts[1];
-            String year = dateParts[2];
-            
-            // Select month
-            wait.until(ExpectedConditions.elementToBeClickable(monthDropdown));
-            monthDropdown.sendKeys(month);
-            
-            // Select year
-            wait.until(ExpectedConditions.elementToBeClickable(yearDropdown));
-            yearDropdown.sendKeys(year);
-            
-            // Wait for day elements to be available and select day
-            wait.until(ExpectedConditions.visibilityOfAllElements(dayElements));
-            for (WebElement dayElement : dayElements) {
-                if (dayElement.getText().equals(day) && 
-                    !dayElement.getAttribute("class").contains("outside-month")) {
-                    wait.until(ExpectedConditions.elementToBeClickable(dayElement));
-                    dayElement.click();
-                    break;
+        StepTimer.time("setDateOfBirth", () -> {
+            if (dateOfBirth != null && !dateOfBirth.trim().isEmpty()) {
+                // Date format: "15 January 1990"
+                datePicker.select(dateOfBirth);
+            }
+        });
+    }
+    
+    // Type the date straight into the input without opening the calendar, falling back
+    // to the picker if the component doesn't accept it
+    public void setDateOfBirthDirect(String dateOfBirth) {
+        StepTimer.time("setDateOfBirthDirect", () -> {
+            if (dateOfBirth != null && !dateOfBirth.trim().isEmpty()) {
+                if (!datePicker.setDirect(dateOfBirth)) {
+                    System.out.println("Direct date entry not accepted, using the date picker: " + dateOfBirth);
+                    datePicker.select(dateOfBirth);
                 }
             }
-        }
+        });
     }
 
     public void setSubjects(String subjects) {
-        if (subjects != null && !subjects.trim().isEmpty()) {
-            wait.until(ExpectedConditions.elementToBeClickable(subjectsField));
-            subjectsField.clear();
-            subjectsField.sendKeys(subjects);
-            // Wait for suggestions and select first one
-            wait.until(ExpectedConditions.visibilityOf(subjectsSuggestionList));
-            subjectsField.sendKeys(org.openqa.selenium.Keys.ENTER);
-        }
+        StepTimer.time("setSubjects", () -> {
+            if (subjects != null && !subjects.trim().isEmpty()) {
+                wait.until(ExpectedConditions.elementToBeClickable(subjectsField));
+                subjectsField.clear();
+                subjectsField.sendKeys(subjects);
+                // Wait for suggestions and select first one
+                waits.visible(".subjects-auto-complete__menu-list");
+                subjectsField.sendKeys(org.openqa.selenium.Keys.ENTER);
+            }
+        });
     }
 
     public void setCurrentAddress(String address) {
-        if (address != null && !address.trim().isEmpty()) {
-            wait.until(ExpectedConditions.elementToBeClickable(addressField));
-            addressField.clear();
-            addressField.sendKeys(address);
-        }
+        StepTimer.time("setCurrentAddress", () -> {
+            if (address != null && !address.trim().isEmpty()) {
+                wait.until(ExpectedConditions.elementToBeClickable(addressField));
+                addressField.clear();
+                addressField.sendKeys(address);
+            }
+        });
     }
     
     // Click submit 
     public void clickSubmit() {
-        try {
-            wait.until(ExpectedConditions.elementToBeClickable(submitButton));
-            
-            // Scroll the button into view
-            JavascriptExecutor js = (JavascriptExecutor) driver;
-            js.executeScript("arguments[0].scrollIntoView({behavior: 'smooth', block: 'center'});", submitButton);
+        StepTimer.time("clickSubmit", () -> {
+            submittedValues = null;
+            try {
+                wait.until(ExpectedConditions.elementToBeClickable(submitButton));
             
-            // Small delay to ensure scroll completes
-            Thread.sleep(500);
+                // Scroll the button into view, returns once the scroll has settled
+                waits.scrollIntoView(submitButton);
             
-            submitButton.click();
-        } catch (Exception e) {
-            System.out.println("Regular click failed, using JavaScript click...");
-            JavascriptExecutor js = (JavascriptExecutor) driver;
-            js.executeScript("arguments[0].click();", submitButton);
-        }
+                submitButton.click();
+            } catch (Exception e) {
+                System.out.println("Regular click failed, using JavaScript click...");
+                JavascriptExecutor js = (JavascriptExecutor) driver;
+                js.executeScript("arguments[0].click();", submitButton);
+            }
+        });
     }
     
     // Verify success modal is displayed
     public boolean isSuccessModalDisplayed() {
         try {
-            wait.until(ExpectedConditions.visibilityOf(successModal));
-            return successModal.isDisplayed();
+            return StepTimer.time("isSuccessModalDisplayed", () -> {
+                // The modal is added to the DOM on submit, so wait on its selector rather than the proxy
+                return waits.visible(".modal-content");
+            });
         } catch (Exception e) {
             return false;
         }
@@ -311,65 +548,59 @@ public class RegistrationPage {
     
     // Get values from success modal
     public String getSubmittedValue(String fieldName) {
+        String value = getSubmittedValues().get(fieldName);
+        return value != null ? value : "";
+    }
+    
+    // Read the whole success-modal table (label -> value) in one script call. The result is
+    // cached until the next navigation or submit, so logging and verification share one read.
+    public Map<String, String> getSubmittedValues() {
+        if (submittedValues != null) {
+            return submittedValues;
+        }
         try {
-            WebElement valueElement = driver.findElement(
-                By.xpath("//td[text()='" + fieldName + "']/following-sibling::td"));
-            return valueElement.getText();
+            return StepTimer.time("getSubmittedValues", () -> {
+                JavascriptExecutor js = (JavascriptExecutor) driver;
+                @SuppressWarnings("unchecked")
+                Map<String, Object> table = (Map<String, Object>) js.executeScript(SUBMITTED_VALUES_SCRIPT);
+                Map<String, String> values = new LinkedHashMap<>();
+                if (table != null) {
+                    for (Map.Entry<String, Object> entry : table.entrySet()) {
+                        values.put(entry.getKey(), String.valueOf(entry.getValue()));
+                    }
+                }
+                Map<String, String> snapshot = Collections.unmodifiableMap(values);
+                // Don't cache an empty read, the modal may not have rendered yet
+                if (!snapshot.isEmpty()) {
+                    submittedValues = snapshot;
+                }
+                return snapshot;
+            });
         } catch (Exception e) {
-            return "";
+            return Collections.emptyMap();
         }
     }
     
     // Check if field is highlighted in red (validation error)
     public boolean isFieldHighlightedRed(String fieldName) {
         try {
-        	
-//        	Thread.sleep(500);
-            WebElement field = getFieldElement(fieldName);
-            wait.until(ExpectedConditions.elementToBeClickable(field));
-            
-            
-            // Get all border color properties
-            String borderTopColor = field.getCssValue("border-top-color");
-            String borderRightColor = field.getCssValue("border-right-color");
-            String borderBottomColor = field.getCssValue("border-bottom-color");
-            String borderLeftColor = field.getCssValue("border-left-color");
-            
-            // Check if any border contains the red color values (220, 53, 69)
-            boolean hasRedBorder = 
-                borderTopColor.contains("220, 53, 69") ||
-                borderRightColor.contains("220, 53, 69") ||
-                borderBottomColor.contains("220, 53, 69") ||
-                borderLeftColor.contains("220, 53, 69");
-
-            return hasRedBorder;
-            
+            return StepTimer.time("isFieldHighlightedRed", () -> captureValidationState().isHighlightedRed(fieldName));
         } catch (Exception e) {
             System.out.println("Error checking field highlight for '" + fieldName + "': " + e.getMessage());
             return false;
         }
     }
     
-    // Helper method to get field element
-    private WebElement getFieldElement(String fieldName) {
-        switch (fieldName.toLowerCase()) {
-            case "first name":
-                return firstNameField;
-            case "last name":
-                return lastNameField;
-            case "email":
-                return emailField;
-            case "mobile":
-                return mobileField;
-            case "date of birth":
-                return dateOfBirthField;
-            case "subjects":
-                return subjectsField;
-            case "address":
-                return addressField;
-            default:
-                throw new IllegalArgumentException("Invalid field name: " + fieldName);
-        }
+    // Border colours and HTML5 validity of every form field in a single browser call
+    @SuppressWarnings("unchecked")
+    public ValidationSnapshot captureValidationState() {
+        return StepTimer.time("captureValidationState", () -> {
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(VALIDATION_STATE_SCRIPT, VALIDATION_FIELD_IDS);
+            if (!(result instanceof Map)) {
+                throw new RuntimeException("Unexpected validation state result: " + result);
+            }
+            return new ValidationSnapshot((Map<String, Object>) result);
+        });
     }
     
     // Method to check if gender radio is selected
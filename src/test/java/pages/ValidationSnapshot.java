@@ -0,0 +1,134 @@
+package pages;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Validation state of every registration form field, read in one browser call by
+// RegistrationPage.captureValidationState(). Fields are keyed by the same names the
+// test data uses: first name, last name, email, gender, mobile, date of birth, subjects, address.
+public class ValidationSnapshot {
+
+    // Bootstrap's invalid colour, rgb(220, 53, 69)
+    private static final String RED = "220, 53, 69";
+
+    private final Map<String, FieldState> fields;
+
+    public static class FieldState {
+        private final String name;
+        private final boolean present;
+        private final String[] borderColors;
+        private final String labelColor;
+        private final boolean valid;
+        private final String validationMessage;
+        private final String value;
+
+        FieldState(String name, Map<?, ?> state) {
+            this.name = name;
+            this.present = state != null;
+            if (state == null) {
+                state = Collections.emptyMap();
+            }
+            this.borderColors = new String[] {
+                text(state.get("borderTopColor")), text(state.get("borderRightColor")),
+                text(state.get("borderBottomColor")), text(state.get("borderLeftColor"))};
+            this.labelColor = text(state.get("labelColor"));
+            this.valid = !Boolean.FALSE.equals(state.get("valid"));
+            this.validationMessage = text(state.get("validationMessage"));
+            this.value = text(state.get("value"));
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // False when the field was not found on the page
+        public boolean isPresent() {
+            return present;
+        }
+
+        // Computed top, right, bottom and left border colours
+        public String[] getBorderColors() {
+            return borderColors.clone();
+        }
+
+        public String getLabelColor() {
+            return labelColor;
+        }
+
+        // HTML5 constraint validity (validity.valid)
+        public boolean isValid() {
+            return valid;
+        }
+
+        public String getValidationMessage() {
+            return validationMessage;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        // Any border in the invalid colour, or the label for radios whose input is hidden
+        public boolean isHighlightedRed() {
+            for (String color : borderColors) {
+                if (color.contains(RED)) {
+                    return true;
+                }
+            }
+            return labelColor.contains(RED);
+        }
+
+        @Override
+        public String toString() {
+            return name + (present ? "" : " (missing)") + " valid=" + valid + " red=" + isHighlightedRed()
+                + (validationMessage.isEmpty() ? "" : " message='" + validationMessage + "'");
+        }
+
+        private static String text(Object value) {
+            return value == null ? "" : String.valueOf(value);
+        }
+    }
+
+    ValidationSnapshot(Map<String, ?> states) {
+        Map<String, FieldState> fields = new LinkedHashMap<>();
+        for (Map.Entry<String, ?> entry : states.entrySet()) {
+            fields.put(entry.getKey(), new FieldState(entry.getKey(), (Map<?, ?>) entry.getValue()));
+        }
+        this.fields = Collections.unmodifiableMap(fields);
+    }
+
+    public Map<String, FieldState> getFields() {
+        return fields;
+    }
+
+    public FieldState field(String fieldName) {
+        FieldState state = fields.get(fieldName.toLowerCase());
+        if (state == null) {
+            throw new IllegalArgumentException("Invalid field name: " + fieldName);
+        }
+        return state;
+    }
+
+    public boolean isHighlightedRed(String fieldName) {
+        return field(fieldName).isHighlightedRed();
+    }
+
+    // Names of fields that are highlighted or fail HTML5 validation
+    public List<String> invalidFields() {
+        List<String> invalid = new ArrayList<>();
+        for (FieldState state : fields.values()) {
+            if (state.isPresent() && (!state.isValid() || state.isHighlightedRed())) {
+                invalid.add(state.getName());
+            }
+        }
+        return invalid;
+    }
+
+    @Override
+    public String toString() {
+        return fields.values().toString();
+    }
+}
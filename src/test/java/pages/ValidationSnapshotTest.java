@@ -0,0 +1,90 @@
+package pages;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Snapshots built from the maps VALIDATION_STATE_SCRIPT returns
+public class ValidationSnapshotTest {
+
+    private static final String RED = "rgb(220, 53, 69)";
+    private static final String GREEN = "rgb(40, 167, 69)";
+    private static final String GREY = "rgb(206, 212, 218)";
+
+    @Test
+    public void redBorderOnAnySideHighlightsTheField() {
+        Map<String, Object> states = new LinkedHashMap<>();
+        states.put("first name", field(RED, RED, RED, RED, GREY, false, "Please fill out this field.", ""));
+        states.put("last name", field(GREY, GREY, RED, GREY, GREY, true, "", "Sharma"));
+        states.put("email", field(GREEN, GREEN, GREEN, GREEN, GREY, true, "", "a@b.c"));
+        ValidationSnapshot snapshot = new ValidationSnapshot(states);
+
+        Assert.assertTrue(snapshot.isHighlightedRed("first name"));
+        Assert.assertTrue(snapshot.isHighlightedRed("last name"));
+        Assert.assertFalse(snapshot.isHighlightedRed("email"));
+        Assert.assertEquals(snapshot.field("first name").getValidationMessage(), "Please fill out this field.");
+        Assert.assertEquals(snapshot.field("last name").getValue(), "Sharma");
+    }
+
+    @Test
+    public void radioIsHighlightedThroughItsLabel() {
+        ValidationSnapshot snapshot = new ValidationSnapshot(
+            Collections.singletonMap("gender", field(GREY, GREY, GREY, GREY, RED, false, "", "")));
+        Assert.assertTrue(snapshot.isHighlightedRed("gender"));
+    }
+
+    @Test
+    public void fieldNamesFromTestDataAreCaseInsensitive() {
+        ValidationSnapshot snapshot = new ValidationSnapshot(
+            Collections.singletonMap("first name", field(RED, RED, RED, RED, GREY, false, "", "")));
+        Assert.assertTrue(snapshot.isHighlightedRed("First name"));
+        Assert.assertEquals(snapshot.field("FIRST NAME").getName(), "first name");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void unknownFieldIsRejected() {
+        new ValidationSnapshot(new HashMap<String, Object>()).field("middle name");
+    }
+
+    @Test
+    public void invalidFieldsListsRedOrConstraintFailuresOfPresentFieldsInPageOrder() {
+        Map<String, Object> states = new LinkedHashMap<>();
+        states.put("first name", field(RED, RED, RED, RED, GREY, false, "", ""));
+        states.put("last name", field(GREY, GREY, GREY, GREY, GREY, true, "", "Sharma"));
+        states.put("mobile", field(GREY, GREY, GREY, GREY, GREY, false, "Please match the requested format.", "12"));
+        states.put("subjects", null);
+        ValidationSnapshot snapshot = new ValidationSnapshot(states);
+
+        Assert.assertEquals(snapshot.invalidFields(), Arrays.asList("first name", "mobile"));
+        Assert.assertFalse(snapshot.field("subjects").isPresent());
+        Assert.assertFalse(snapshot.isHighlightedRed("subjects"));
+        Assert.assertTrue(snapshot.field("subjects").isValid());
+    }
+
+    @Test
+    public void borderColorsAreACopy() {
+        ValidationSnapshot snapshot = new ValidationSnapshot(
+            Collections.singletonMap("email", field(GREY, GREY, GREY, GREY, GREY, true, "", "")));
+        snapshot.field("email").getBorderColors()[0] = RED;
+        Assert.assertFalse(snapshot.isHighlightedRed("email"));
+    }
+
+    private static Map<String, Object> field(String top, String right, String bottom, String left, String label,
+                                             boolean valid, String message, String value) {
+        Map<String, Object> state = new HashMap<>();
+        state.put("borderTopColor", top);
+        state.put("borderRightColor", right);
+        state.put("borderBottomColor", bottom);
+        state.put("borderLeftColor", left);
+        state.put("labelColor", label);
+        state.put("valid", valid);
+        state.put("validationMessage", message);
+        state.put("value", value);
+        return state;
+    }
+}
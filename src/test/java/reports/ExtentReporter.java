@@ -1,35 +1,240 @@
 package reports;
 
 import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 
+import utils.OutputPaths;
+import utils.Shard;
+
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+// Thread-safe report holder that writes results to disk as the run progresses:
+//   -Dreport.flushEvery=N              flush after every N completed tests (default 25, 0 = off)
+//   -Dreport.flushIntervalSeconds=S    also flush every S seconds while tests are running (default 30, 0 = off)
+//   -Dreport.maxTestsPerFile=M         roll over to a new part file after M tests so finished
+//                                      parts can be released from the heap and each flush only
+//                                      re-renders the current part (default 500, 0 = one file)
+// Completed tests are also appended to a JSON lines result stream (see ResultStream) that
+// ReportMerger can combine across shards and runs.
+// A shutdown hook flushes whatever has been recorded if the JVM exits early.
+// A flush renders every node of a part, so nodes are only changed through this class (createTest,
+// update, testCompleted, summaryCompleted), which holds the same lock as the flush.
 public class ExtentReporter {
-    
+
+    private static final Object lock = new Object();
+
     private static ExtentReports extent;
-    
+    private static Part currentPart;
+    private static String timeStamp;
+    private static int partNumber;
+    private static int testsInPart;
+    private static int completedSinceFlush;
+    private static boolean dirty;
+
+    // Report parts that still have tests running, by test
+    private static final Map<ExtentTest, Part> partsByTest = new IdentityHashMap<>();
+    private static final List<Part> retiredParts = new ArrayList<>();
+    private static ScheduledExecutorService flusher;
+    private static boolean shutdownHookAdded;
+    private static ResultStream resultStream;
+
+    private static class Part {
+        final ExtentReports extent;
+        int inFlight;
+
+        Part(ExtentReports extent) {
+            this.extent = extent;
+        }
+    }
+
     public static ExtentReports getExtentReport() {
-        if (extent == null) {
-            String timeStamp = new SimpleDateFormat("yyyy.MM.dd.HH.mm.ss").format(new Date());
-            String reportName = "Test-Report-" + timeStamp + ".html";
-            
-            ExtentSparkReporter sparkReporter = new ExtentSparkReporter(System.getProperty("user.dir") + "/test-output/" + reportName);
-            extent = new ExtentReports();
-            extent.attachReporter(sparkReporter);
-            
-            sparkReporter.config().setDocumentTitle("Registration Form Automation Report");
-            sparkReporter.config().setReportName("Registration Form Test Results");
-            sparkReporter.config().setTheme(Theme.STANDARD);
-            sparkReporter.config().setTimeStampFormat("MMMM dd, yyyy, hh:mm a '('zzz')'");
-            
-            extent.setSystemInfo("Application", "DemoQA Practice Form");
-            extent.setSystemInfo("Operating System", System.getProperty("os.name"));
-            extent.setSystemInfo("User Name", System.getProperty("user.name"));
-            extent.setSystemInfo("Java Version", System.getProperty("java.version"));
-        }
-        return extent;
-    }
-}
\ No newline at end of file
+        synchronized (lock) {
+            if (extent == null) {
+                timeStamp = new SimpleDateFormat("yyyy.MM.dd.HH.mm.ss").format(new Date());
+                if (ResultStream.isEnabled()) {
+                    resultStream = new ResultStream(timeStamp);
+                }
+                startPart();
+                startFlusher();
+            }
+            return extent;
+        }
+    }
+
+    // Create a test node in the current part, rolling over to a new part when it is full
+    public static ExtentTest createTest(String testName) {
+        synchronized (lock) {
+            getExtentReport();
+            int maxTestsPerFile = Integer.getInteger("report.maxTestsPerFile", 500);
+            if (maxTestsPerFile > 0 && testsInPart >= maxTestsPerFile) {
+                retirePart();
+                startPart();
+            }
+            ExtentTest test = extent.createTest(testName);
+            currentPart.inFlight++;
+            testsInPart++;
+            partsByTest.put(test, currentPart);
+            dirty = true;
+            return test;
+        }
+    }
+
+    // Log to or otherwise change a report node; never while a flush is rendering it
+    public static void update(ExtentTest test, Consumer<ExtentTest> change) {
+        synchronized (lock) {
+            change.accept(test);
+        }
+    }
+
+    // Called once a test has its final status; may trigger an incremental flush
+    public static void testCompleted(ExtentTest test) {
+        completed(test, false);
+    }
+
+    // Same as testCompleted for nodes that summarize the run rather than record a test, which
+    // the result stream tags so merged summaries don't count them
+    public static void summaryCompleted(ExtentTest test) {
+        completed(test, true);
+    }
+
+    private static void completed(ExtentTest test, boolean summary) {
+        synchronized (lock) {
+            Part part = partsByTest.remove(test);
+            if (part == null) {
+                return;
+            }
+            if (resultStream != null) {
+                resultStream.write(test.getModel(), summary);
+            }
+            part.inFlight--;
+            dirty = true;
+            if (part != currentPart && part.inFlight == 0) {
+                // Last test of a retired part finished: write it out and let it be collected
+                part.extent.flush();
+                retiredParts.remove(part);
+                return;
+            }
+            completedSinceFlush++;
+            int flushEvery = Integer.getInteger("report.flushEvery", 25);
+            if (flushEvery > 0 && completedSinceFlush >= flushEvery) {
+                flush();
+            }
+        }
+    }
+
+    // Write every open part to disk
+    public static void flush() {
+        synchronized (lock) {
+            if (extent == null) {
+                return;
+            }
+            for (Part part : retiredParts) {
+                part.extent.flush();
+            }
+            extent.flush();
+            if (resultStream != null) {
+                resultStream.flush();
+            }
+            completedSinceFlush = 0;
+            dirty = false;
+        }
+    }
+
+    // Drop the report without writing it, so the next createTest starts a new run; for the
+    // benchmarks in src/bench, which measure the real flush path many times in one JVM
+    static void reset() {
+        synchronized (lock) {
+            if (flusher != null) {
+                flusher.shutdownNow();
+                flusher = null;
+            }
+            if (resultStream != null) {
+                resultStream.close();
+                resultStream = null;
+            }
+            extent = null;
+            currentPart = null;
+            partNumber = 0;
+            testsInPart = 0;
+            completedSinceFlush = 0;
+            dirty = false;
+            partsByTest.clear();
+            retiredParts.clear();
+        }
+    }
+
+    private static void startPart() {
+        partNumber++;
+        testsInPart = 0;
+        String reportName = "Test-Report-" + timeStamp + (partNumber > 1 ? "-part" + partNumber : "") + ".html";
+
+        ExtentSparkReporter sparkReporter = new ExtentSparkReporter(OutputPaths.resolve(reportName));
+        extent = new ExtentReports();
+        extent.attachReporter(sparkReporter);
+
+        sparkReporter.config().setDocumentTitle("Registration Form Automation Report");
+        sparkReporter.config().setReportName("Registration Form Test Results" + (partNumber > 1 ? " (part " + partNumber + ")" : ""));
+        sparkReporter.config().setTheme(Theme.STANDARD);
+        sparkReporter.config().setTimeStampFormat("MMMM dd, yyyy, hh:mm a '('zzz')'");
+
+        extent.setSystemInfo("Application", "DemoQA Practice Form");
+        extent.setSystemInfo("Operating System", System.getProperty("os.name"));
+        extent.setSystemInfo("User Name", System.getProperty("user.name"));
+        extent.setSystemInfo("Java Version", System.getProperty("java.version"));
+        if (Shard.isSharded()) {
+            extent.setSystemInfo("Shard", Shard.index() + " of " + Shard.count());
+        }
+        currentPart = new Part(extent);
+    }
+
+    private static void retirePart() {
+        extent.flush();
+        if (currentPart.inFlight > 0) {
+            retiredParts.add(currentPart);
+        }
+    }
+
+    private static void startFlusher() {
+        int interval = Integer.getInteger("report.flushIntervalSeconds", 30);
+        if (interval > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "extent-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(() -> {
+                try {
+                    synchronized (lock) {
+                        if (dirty) {
+                            flush();
+                        }
+                    }
+                } catch (Exception e) {
+                    System.err.println("Error flushing report: " + e.getMessage());
+                }
+            }, interval, interval, TimeUnit.SECONDS);
+        }
+        if (shutdownHookAdded) {
+            return;
+        }
+        shutdownHookAdded = true;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                flush();
+            } catch (Exception e) {
+                System.err.println("Error flushing report on shutdown: " + e.getMessage());
+            }
+        }, "extent-shutdown-flush"));
+    }
+}
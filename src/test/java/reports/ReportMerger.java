@@ -0,0 +1,240 @@
+package reports;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.MediaEntityBuilder;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.configuration.Theme;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Combines result streams (results-*.jsonl, written by ResultStream) from any number of shards,
+// threads or runs into one Spark report plus a merged-summary.json:
+//
+//   java -cp <test classpath> reports.ReportMerger <output dir> [stream files or directories...]
+//
+// Directories are searched recursively and default to test-output. Streams are read a line at a
+// time and the report rolls over to a new part file every -Dmerge.maxTestsPerFile tests
+// (default 1000, 0 = one file), so memory stays bounded by the part size, not the number of tests.
+// The summary names the first -Dmerge.maxFailedNames failures (default 1000) and counts them all.
+public class ReportMerger {
+
+    private final File outputDirectory;
+    private final int maxTestsPerFile;
+    private final int maxFailedNames;
+
+    private ExtentReports extent;
+    private int partNumber;
+    private int testsInPart;
+    private final List<String> reportFiles = new ArrayList<>();
+
+    // Summary totals, kept as counters only
+    private long tests;
+    private long malformedLines;
+    private long totalDurationMs;
+    private long firstStart = Long.MAX_VALUE;
+    private long lastEnd = Long.MIN_VALUE;
+    private final Map<String, Long> byStatus = new TreeMap<>();
+    private final Map<String, Long> byRun = new TreeMap<>();
+    private long failedCount;
+    private final List<String> failed = new ArrayList<>();
+
+    public ReportMerger(File outputDirectory, int maxTestsPerFile) {
+        this(outputDirectory, maxTestsPerFile, Integer.getInteger("merge.maxFailedNames", 1000));
+    }
+
+    public ReportMerger(File outputDirectory, int maxTestsPerFile, int maxFailedNames) {
+        this.outputDirectory = outputDirectory;
+        this.maxTestsPerFile = maxTestsPerFile;
+        this.maxFailedNames = maxFailedNames;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ReportMerger <output dir> [stream files or directories...]");
+            System.exit(2);
+        }
+        List<File> inputs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            inputs.add(new File(args[i]));
+        }
+        if (inputs.isEmpty()) {
+            inputs.add(new File("test-output"));
+        }
+        ReportMerger merger = new ReportMerger(new File(args[0]), Integer.getInteger("merge.maxTestsPerFile", 1000));
+        Map<String, Object> summary = merger.merge(findStreams(inputs));
+        System.out.println("Merged " + summary.get("tests") + " tests into " + merger.outputDirectory);
+    }
+
+    // All result stream files under the given files and directories, in name order
+    public static List<File> findStreams(List<File> inputs) {
+        List<File> streams = new ArrayList<>();
+        for (File input : inputs) {
+            if (input.isDirectory()) {
+                File[] children = input.listFiles();
+                if (children != null) {
+                    Arrays.sort(children);
+                    streams.addAll(findStreams(Arrays.asList(children)));
+                }
+            } else if (input.isFile() && input.getName().startsWith("results-") && input.getName().endsWith(".jsonl")) {
+                streams.add(input);
+            }
+        }
+        return streams;
+    }
+
+    // Replay every stream into the merged report and return the summary that was written
+    public Map<String, Object> merge(List<File> streams) throws IOException {
+        outputDirectory.mkdirs();
+        for (File stream : streams) {
+            try (BufferedReader reader = Files.newBufferedReader(stream.toPath(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+                    JsonObject result;
+                    try {
+                        result = JsonParser.parseString(line).getAsJsonObject();
+                    } catch (JsonParseException | IllegalStateException e) {
+                        // e.g. the last line of a run that was killed mid-write
+                        malformedLines++;
+                        continue;
+                    }
+                    add(result);
+                }
+            }
+        }
+        if (extent != null) {
+            extent.flush();
+        }
+        Map<String, Object> summary = summary(streams);
+        try (Writer writer = Files.newBufferedWriter(new File(outputDirectory, "merged-summary.json").toPath(), StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(summary, writer);
+        }
+        return summary;
+    }
+
+    private void add(JsonObject result) {
+        if (extent == null || (maxTestsPerFile > 0 && testsInPart >= maxTestsPerFile)) {
+            startPart();
+        }
+        String name = text(result, "name", "Unnamed test");
+        String run = text(result, "run", "unknown");
+        String shard = text(result, "shard", null);
+        String status = text(result, "status", "pass");
+        long start = result.has("start") ? result.get("start").getAsLong() : 0;
+        long end = result.has("end") ? result.get("end").getAsLong() : start;
+
+        ExtentTest test = extent.createTest(name);
+        test.assignCategory(shard != null ? shard : "run " + run);
+        if (result.has("logs")) {
+            for (JsonElement element : result.getAsJsonArray("logs")) {
+                JsonObject log = element.getAsJsonObject();
+                Status logStatus = parseStatus(text(log, "status", "info"));
+                String details = text(log, "details", null);
+                String media = text(log, "media", null);
+                if (media != null) {
+                    test.log(logStatus, details, MediaEntityBuilder.createScreenCaptureFromPath(media).build());
+                } else if (details != null) {
+                    test.log(logStatus, details);
+                }
+                if (log.has("exception")) {
+                    test.log(logStatus, MarkupHelper.createCodeBlock(log.get("exception").getAsString()));
+                }
+            }
+        }
+        // Keep the status and timings of the original run rather than those of the merge
+        test.getModel().setStatus(parseStatus(status));
+        test.getModel().setStartTime(new Date(start));
+        test.getModel().setEndTime(new Date(end));
+        testsInPart++;
+
+        // Step timings and cached passes of a run are shown but are not tests
+        if ("summary".equals(text(result, "kind", null))) {
+            return;
+        }
+        tests++;
+        totalDurationMs += Math.max(0, end - start);
+        firstStart = Math.min(firstStart, start);
+        lastEnd = Math.max(lastEnd, end);
+        byStatus.merge(status, 1L, Long::sum);
+        byRun.merge(shard != null ? run + " " + shard : run, 1L, Long::sum);
+        if ("fail".equals(status)) {
+            failedCount++;
+            if (failed.size() < maxFailedNames) {
+                failed.add(name);
+            }
+        }
+    }
+
+    private void startPart() {
+        if (extent != null) {
+            // Written out in full, the finished part can be collected
+            extent.flush();
+        }
+        partNumber++;
+        testsInPart = 0;
+        String reportName = "Merged-Report" + (partNumber > 1 ? "-part" + partNumber : "") + ".html";
+        reportFiles.add(reportName);
+
+        ExtentSparkReporter sparkReporter = new ExtentSparkReporter(new File(outputDirectory, reportName).getPath());
+        extent = new ExtentReports();
+        extent.attachReporter(sparkReporter);
+        sparkReporter.config().setDocumentTitle("Registration Form Automation Report");
+        sparkReporter.config().setReportName("Registration Form Test Results (merged" + (partNumber > 1 ? ", part " + partNumber : "") + ")");
+        sparkReporter.config().setTheme(Theme.STANDARD);
+        sparkReporter.config().setTimeStampFormat("MMMM dd, yyyy, hh:mm a '('zzz')'");
+        extent.setSystemInfo("Application", "DemoQA Practice Form");
+        // The report's own run time would be the merge, not the runs it covers
+        extent.setReportUsesManualConfiguration(true);
+    }
+
+    private Map<String, Object> summary(List<File> streams) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("streams", streams.size());
+        summary.put("tests", tests);
+        summary.put("byStatus", byStatus);
+        summary.put("byRun", byRun);
+        summary.put("totalTestDurationMs", totalDurationMs);
+        summary.put("wallClockMs", tests == 0 ? 0 : lastEnd - firstStart);
+        summary.put("malformedLines", malformedLines);
+        summary.put("failedCount", failedCount);
+        summary.put("failed", failed);
+        summary.put("reports", reportFiles);
+        return summary;
+    }
+
+    private static Status parseStatus(String status) {
+        for (Status value : Status.values()) {
+            if (value.name().equalsIgnoreCase(status)) {
+                return value;
+            }
+        }
+        return Status.INFO;
+    }
+
+    private static String text(JsonObject json, String key, String fallback) {
+        JsonElement value = json.get(key);
+        return value == null || value.isJsonNull() ? fallback : value.getAsString();
+    }
+}
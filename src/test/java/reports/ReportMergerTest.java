@@ -0,0 +1,112 @@
+package reports;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class ReportMergerTest {
+
+    private File directory;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("ReportMergerTest-").toFile();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void mergesStreamsOfSeveralShardsAndSkipsSummariesAndATornLine() throws IOException {
+        File first = stream("shard-0/results-100.jsonl", 100, "shard-0-of-2", 3, 1);
+        File second = stream("shard-1/results-200.jsonl", 200, "shard-1-of-2", 2, 1);
+        // Each shard adds its step timings at the end of the run
+        for (File stream : new File[] {first, second}) {
+            Files.write(stream.toPath(), ("{\"run\":\"x\",\"kind\":\"summary\",\"name\":\"Step Timings\",\"status\":\"info\","
+                + "\"start\":1,\"end\":2,\"logs\":[]}\n").getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        }
+        // A run killed mid-write leaves half a line behind
+        Files.write(second.toPath(), "{\"run\":\"200\",\"name\":\"torn".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+
+        List<File> streams = ReportMerger.findStreams(Collections.singletonList(directory));
+        Assert.assertEquals(streams, Arrays.asList(first, second));
+
+        File output = new File(directory, "merged");
+        Map<String, Object> summary = new ReportMerger(output, 2).merge(streams);
+
+        Assert.assertEquals(summary.get("streams"), 2);
+        Assert.assertEquals(summary.get("tests"), 5L);
+        Assert.assertEquals(summary.get("malformedLines"), 1L);
+        Map<?, ?> byStatus = (Map<?, ?>) summary.get("byStatus");
+        Assert.assertEquals(byStatus.get("pass"), 3L);
+        Assert.assertEquals(byStatus.get("fail"), 2L);
+        Map<?, ?> byRun = (Map<?, ?>) summary.get("byRun");
+        Assert.assertEquals(byRun.get("100 shard-0-of-2"), 3L);
+        Assert.assertEquals(byRun.get("200 shard-1-of-2"), 2L);
+        Assert.assertEquals(summary.get("failedCount"), 2L);
+        Assert.assertEquals(summary.get("failed"), Arrays.asList("test 100-2", "test 200-1"));
+
+        Assert.assertFalse(byStatus.containsKey("info"), "summary nodes should not be counted");
+        Assert.assertEquals(byRun.size(), 2);
+
+        // Two nodes per part, the summary nodes are still shown
+        Assert.assertEquals(summary.get("reports"), Arrays.asList("Merged-Report.html", "Merged-Report-part2.html",
+            "Merged-Report-part3.html", "Merged-Report-part4.html"));
+        for (Object report : (List<?>) summary.get("reports")) {
+            Assert.assertTrue(new File(output, report.toString()).length() > 0, report + " was not written");
+        }
+        String written = new String(Files.readAllBytes(new File(output, "merged-summary.json").toPath()), StandardCharsets.UTF_8);
+        Assert.assertTrue(written.contains("\"malformedLines\": 1"), written);
+    }
+
+    @Test
+    public void failedNamesAreCappedButAllCounted() throws IOException {
+        File results = stream("results-300.jsonl", 300, null, 5, 5);
+        Map<String, Object> summary = new ReportMerger(new File(directory, "merged"), 0, 2)
+            .merge(Collections.singletonList(results));
+
+        Assert.assertEquals(summary.get("failedCount"), 5L);
+        Assert.assertEquals(summary.get("failed"), Arrays.asList("test 300-0", "test 300-1"));
+        Assert.assertEquals(summary.get("reports"), Collections.singletonList("Merged-Report.html"));
+    }
+
+    // Lines as ResultStream writes them, the last `failing` tests failed
+    private File stream(String path, long run, String shard, int count, int failing) throws IOException {
+        File file = new File(directory, path);
+        file.getParentFile().mkdirs();
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < count; i++) {
+                boolean fail = i >= count - failing;
+                long start = run * 1000 + i * 10;
+                writer.write("{\"run\":\"" + run + "\","
+                    + (shard != null ? "\"shard\":\"" + shard + "\"," : "")
+                    + "\"name\":\"test " + run + "-" + i + "\",\"status\":\"" + (fail ? "fail" : "pass") + "\","
+                    + "\"start\":" + start + ",\"end\":" + (start + 5) + ","
+                    + "\"logs\":[{\"status\":\"info\",\"time\":" + start + ",\"details\":\"step " + i + "\"}"
+                    + (fail ? ",{\"status\":\"fail\",\"time\":" + start + ",\"exception\":\"java.lang.AssertionError\"}" : "")
+                    + "]}\n");
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,117 @@
+package reports;
+
+import com.aventstack.extentreports.model.Log;
+import com.aventstack.extentreports.model.Test;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import utils.OutputPaths;
+import utils.Shard;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+// Appends one JSON line per completed test to results-<timestamp>.jsonl in the output directory,
+// next to the HTML report. ReportMerger combines any number of these streams into one report.
+// Switch off with -Dreport.resultStream=false.
+//
+//   {"run":"2025.01.31.10.15.00","shard":"shard-0-of-2","name":"...","status":"pass",
+//    "start":1738318500000,"end":1738318512345,
+//    "logs":[{"status":"info","time":1738318500100,"details":"...","media":"...","exception":"..."}]}
+//
+// Nodes that summarize the run rather than record a test (step timings, cached passes) carry
+// "kind":"summary", so ReportMerger shows them without counting them as tests.
+public class ResultStream {
+
+    private static final Gson gson = new Gson();
+
+    private final String runId;
+    private final File file;
+    private Writer writer;
+
+    ResultStream(String runId) {
+        this.runId = runId;
+        this.file = new File(OutputPaths.resolve("results-" + runId + ".jsonl"));
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("report.resultStream", "true"));
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    // Record a finished test; failures are reported but never fail the test run
+    synchronized void write(Test test, boolean summary) {
+        try {
+            if (writer == null) {
+                file.getAbsoluteFile().getParentFile().mkdirs();
+                writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+            }
+            JsonObject json = toJson(test);
+            if (summary) {
+                json.addProperty("kind", "summary");
+            }
+            writer.write(gson.toJson(json));
+            writer.write('\n');
+        } catch (IOException e) {
+            System.err.println("Error writing result stream " + file + ": " + e.getMessage());
+        }
+    }
+
+    synchronized void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.err.println("Error closing result stream " + file + ": " + e.getMessage());
+            }
+            writer = null;
+        }
+    }
+
+    synchronized void flush() {
+        if (writer != null) {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                System.err.println("Error flushing result stream " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private JsonObject toJson(Test test) {
+        JsonObject json = new JsonObject();
+        json.addProperty("run", runId);
+        if (Shard.isSharded()) {
+            json.addProperty("shard", Shard.label());
+        }
+        json.addProperty("name", test.getName());
+        json.addProperty("status", test.getStatus().toLower());
+        json.addProperty("start", test.getStartTime().getTime());
+        json.addProperty("end", test.getEndTime().getTime());
+        JsonArray logs = new JsonArray();
+        for (Log log : test.getLogs()) {
+            JsonObject entry = new JsonObject();
+            entry.addProperty("status", log.getStatus().toLower());
+            entry.addProperty("time", log.getTimestamp().getTime());
+            if (log.getDetails() != null && !log.getDetails().isEmpty()) {
+                entry.addProperty("details", log.getDetails());
+            }
+            if (log.hasMedia() && log.getMedia().getPath() != null) {
+                entry.addProperty("media", log.getMedia().getPath());
+            }
+            if (log.hasException()) {
+                entry.addProperty("exception", log.getException().getStackTrace());
+            }
+            logs.add(entry);
+        }
+        json.add("logs", logs);
+        return json;
+    }
+}
@@ -10,20 +10,29 @@ import com.aventstack.extentreports.Status;
 
 import data.Dataprovider;
 import pages.RegistrationPage;
+import pages.ValidationSnapshot;
 import utils.BaseTest;
+import utils.StandInServer;
 
-import java.io.IOException;
+import java.util.Map;
 
 @Test
 public class RegistrationTest extends BaseTest {
     
-    private RegistrationPage registrationPage;
-    private final String url = "https://demoqa.com/automation-practice-form";
+    // One page object per test thread, bound to that thread's driver
+    private final ThreadLocal<RegistrationPage> registrationPage = new ThreadLocal<>();
+    // -Dapp.target=local points the tests at the stand-in copy of the form served from this JVM
+    private final String url = StandInServer.resolve("https://demoqa.com/automation-practice-form",
+        StandInServer.REGISTRATION_FORM_PATH);
     
     @BeforeMethod
     public void setUp() {
         initializeDriver();
-        registrationPage = new RegistrationPage(driver);
+        registrationPage.set(new RegistrationPage(getDriver()));
+    }
+    
+    private RegistrationPage getRegistrationPage() {
+        return registrationPage.get();
     }
     
     // Happy path
@@ -34,30 +43,30 @@ public class RegistrationTest extends BaseTest {
                                     String expectedEmptyField) {
         
         String testName = "Valid Registration - " + firstName + " " + lastName;
-        test = extent.createTest(testName);
+        createTest(testName);
         
         try {
-            test.log(Status.INFO, "Starting valid registration test for: " + firstName + " " + lastName);
+            log(Status.INFO, "Starting valid registration test for: " + firstName + " " + lastName);
             
-            // Launch browser and hit URL
-            registrationPage.navigateToRegistrationPage(url);
-            test.log(Status.INFO, "Navigated to: " + url);
+            // Launch browser and hit URL, or reset the already loaded form when sessions are reused
+            boolean reused = getRegistrationPage().openRegistrationForm(url);
+            log(Status.INFO, (reused ? "Form reset in place on: " : "Navigated to: ") + url);
             
             // Enter all required fields
-            registrationPage.fillRegistrationForm(firstName, lastName, email, gender, mobile, dateOfBirth, subjects, address);
-            test.log(Status.INFO, "Form filled with test data");
+            getRegistrationPage().fillRegistrationForm(firstName, lastName, email, gender, mobile, dateOfBirth, subjects, address);
+            log(Status.INFO, "Form filled with test data");
             
             // Capture form after filling
             captureFormState("Form_After_Filling");
             
             // Click on Submit
-            registrationPage.clickSubmit();
-            test.log(Status.INFO, "Submit button clicked");
+            getRegistrationPage().clickSubmit();
+            log(Status.INFO, "Submit button clicked");
             
             // Verify success modal is displayed
-            boolean isModalDisplayed = registrationPage.isSuccessModalDisplayed();
+            boolean isModalDisplayed = getRegistrationPage().isSuccessModalDisplayed();
             if (isModalDisplayed) {
-                test.log(Status.PASS, "Success modal displayed after valid registration");
+                log(Status.PASS, "Success modal displayed after valid registration");
                 
                 // Capture success modal
                 captureSuccessModal();
@@ -66,17 +75,17 @@ public class RegistrationTest extends BaseTest {
                 verifySubmittedValues(firstName, lastName, email, gender, mobile, dateOfBirth, subjects, address);
                 
             } else {
-                test.log(Status.FAIL, "Success modal NOT displayed after valid registration");
+                log(Status.FAIL, "Success modal NOT displayed after valid registration");
                 captureFormState("Modal_Not_Displayed");
                 Assert.fail("Success modal should be displayed after valid registration");
             }
             
             // Assert all soft assertions
-            registrationPage.assertAll();
-            test.log(Status.PASS, "All soft assertions passed");
+            getRegistrationPage().assertAll();
+            log(Status.PASS, "All soft assertions passed");
             
         } catch (Exception e) {
-            test.log(Status.FAIL, "Test failed with exception: " + e.getMessage());
+            log(Status.FAIL, "Test failed with exception: " + e.getMessage());
             captureFormState("Test_Failure");
             throw e;
         }
@@ -90,88 +99,69 @@ public class RegistrationTest extends BaseTest {
                                       String expectedEmptyField) {
         
         String testName = "Invalid Registration - Missing: " + expectedEmptyField;
-        test = extent.createTest(testName);
+        createTest(testName);
         
         try {
-            test.log(Status.INFO, "Starting invalid registration test for missing field: " + expectedEmptyField);
-            test.log(Status.INFO, "Test data - Name: " + firstName + " " + lastName + ", Email: " + email);
+            log(Status.INFO, "Starting invalid registration test for missing field: " + expectedEmptyField);
+            log(Status.INFO, "Test data - Name: " + firstName + " " + lastName + ", Email: " + email);
             
-            // Launch browser and hit URL
-            registrationPage.navigateToRegistrationPage(url);
-            test.log(Status.INFO, "Navigated to: " + url);
+            // Launch browser and hit URL, or reset the already loaded form when sessions are reused
+            boolean reused = getRegistrationPage().openRegistrationForm(url);
+            log(Status.INFO, (reused ? "Form reset in place on: " : "Navigated to: ") + url);
             
             // Enter some fields (with missing data)
-            registrationPage.fillRegistrationForm(firstName, lastName, email, gender, mobile, dateOfBirth, subjects, address);
-            test.log(Status.INFO, "Form partially filled with missing: " + expectedEmptyField);
+            getRegistrationPage().fillRegistrationForm(firstName, lastName, email, gender, mobile, dateOfBirth, subjects, address);
+            log(Status.INFO, "Form partially filled with missing: " + expectedEmptyField);
             
             // Capture form before submission
             captureFormState("Form_Before_Invalid_Submit");
             
             // Click on Submit
-            registrationPage.clickSubmit();
-            test.log(Status.INFO, "Submit button clicked for invalid data");
+            getRegistrationPage().clickSubmit();
+            log(Status.INFO, "Submit button clicked for invalid data");
             
-            registrationPage.scrollToFirstNameField();
-            // Verify error is displayed
-            boolean isFieldHighlighted = registrationPage.isFieldHighlightedRed(expectedEmptyField);
+            getRegistrationPage().scrollToFirstNameField();
+            // Verify error is displayed, reading every field's validation state in one call
+            ValidationSnapshot validation = getRegistrationPage().captureValidationState();
+            log(Status.INFO, "Fields flagged invalid: " + validation.invalidFields());
+            boolean isFieldHighlighted = validation.isHighlightedRed(expectedEmptyField);
             if (isFieldHighlighted) {
-                test.log(Status.PASS, "Field '" + expectedEmptyField + "' correctly highlighted in red for validation error");
+                log(Status.PASS, "Field '" + expectedEmptyField + "' correctly highlighted in red for validation error");
                 
                 // Capture validation error
                 captureValidationError(expectedEmptyField);
                 
             } else {
-                test.log(Status.FAIL, "Field '" + expectedEmptyField + "' was NOT highlighted in red as expected");
+                log(Status.FAIL, "Field '" + expectedEmptyField + "' was NOT highlighted in red as expected");
                 captureFormState("Missing_Validation_Error");
                 Assert.fail("Empty field '" + expectedEmptyField + "' should be highlighted in red");
             }
             
             // Assert all soft assertions
-            registrationPage.assertAll();
-            test.log(Status.PASS, "All soft assertions passed for invalid registration test");
+            getRegistrationPage().assertAll();
+            log(Status.PASS, "All soft assertions passed for invalid registration test");
             
         } catch (Exception e) {
-            test.log(Status.FAIL, "Invalid registration test failed with exception: " + e.getMessage());
+            log(Status.FAIL, "Invalid registration test failed with exception: " + e.getMessage());
             captureFormState("Invalid_Test_Failure");
             throw e;
         }
     }
     
-    // Helper methods for capturing screenshots
+    // Helper methods for capturing steps, kept or discarded according to capture.policy
     private void captureFormState(String stateName) {
-        try {
-            String screenshotPath = takeFullPageScreenshot(stateName + ".png");
-            if (screenshotPath != null) {
-                attachFileScreenshot(screenshotPath, "Form State: " + stateName);
-            }
-        } catch (IOException e) {
-            test.log(Status.WARNING, "Failed to capture form state screenshot: " + e.getMessage());
-        }
+        captureStep(stateName, "Form State: " + stateName);
     }
     
     private void captureSuccessModal() {
-        try {
-            String screenshotPath = takeFullPageScreenshot("Success_Modal.png");
-            if (screenshotPath != null) {
-                attachFileScreenshot(screenshotPath, "Success modal with submitted values");
-                
-                // Also log the submitted values
-                logSubmittedValues();
-            }
-        } catch (IOException e) {
-            test.log(Status.WARNING, "Failed to capture success modal screenshot: " + e.getMessage());
-        }
+        captureStep("Success_Modal", "Success modal with submitted values");
+        
+        // Also log the submitted values
+        logSubmittedValues();
     }
     
     private void captureValidationError(String fieldName) {
-        try {
-            String screenshotPath = takeFullPageScreenshot("Validation_Error_" + fieldName.replace(" ", "_") + ".png");
-            if (screenshotPath != null) {
-                attachFileScreenshot(screenshotPath, "Validation error for field: " + fieldName);
-            }
-        } catch (IOException e) {
-            test.log(Status.WARNING, "Failed to capture validation error screenshot: " + e.getMessage());
-        }
+        captureStep("Validation_Error_" + fieldName.replace(" ", "_"), "Validation error for field: " + fieldName);
     }
     
     private void logSubmittedValues() {
@@ -179,16 +169,18 @@ public class RegistrationTest extends BaseTest {
             StringBuilder submittedData = new StringBuilder();
             submittedData.append("Submitted Form Data:\n");
             
+            // One read of the whole modal table, shared with verifySubmittedValues
+            Map<String, String> submitted = getRegistrationPage().getSubmittedValues();
             String[] fields = {"Student Name", "Student Email", "Gender", "Mobile", "Date of Birth", "Subjects", "Address"};
             
             for (String field : fields) {
-                String value = registrationPage.getSubmittedValue(field);
+                String value = submitted.getOrDefault(field, "");
                 submittedData.append(field).append(": ").append(value).append("\n");
             }
             
-            test.log(Status.INFO, submittedData.toString());
+            log(Status.INFO, submittedData.toString());
         } catch (Exception e) {
-            test.log(Status.WARNING, "Failed to log submitted values: " + e.getMessage());
+            log(Status.WARNING, "Failed to log submitted values: " + e.getMessage());
         }
     }
     
@@ -197,79 +189,80 @@ public class RegistrationTest extends BaseTest {
                                      String gender, String mobile, String dateOfBirth, 
                                      String subjects, String address) {
         
-        test.log(Status.INFO, "Verifying submitted values...");
+        log(Status.INFO, "Verifying submitted values...");
+        Map<String, String> submitted = getRegistrationPage().getSubmittedValues();
         
         try {
             String expectedName = firstName + " " + lastName;
-            String actualName = registrationPage.getSubmittedValue("Student Name");
+            String actualName = submitted.getOrDefault("Student Name", "");
             Assert.assertEquals(actualName, expectedName, "Name should match");
-            test.log(Status.PASS, "Name verification passed: " + actualName);
+            log(Status.PASS, "Name verification passed: " + actualName);
             
         } catch (AssertionError e) {
-            test.log(Status.FAIL, "Name verification failed: " + e.getMessage());
+            log(Status.FAIL, "Name verification failed: " + e.getMessage());
             throw e;
         }
         
         try {
-            String actualEmail = registrationPage.getSubmittedValue("Student Email");
+            String actualEmail = submitted.getOrDefault("Student Email", "");
             Assert.assertEquals(actualEmail, email, "Email should match");
-            test.log(Status.PASS, "Email verification passed: " + actualEmail);
+            log(Status.PASS, "Email verification passed: " + actualEmail);
             
         } catch (AssertionError e) {
-            test.log(Status.FAIL, "Email verification failed: " + e.getMessage());
+            log(Status.FAIL, "Email verification failed: " + e.getMessage());
             throw e;
         }
         
         try {
-            String actualGender = registrationPage.getSubmittedValue("Gender");
+            String actualGender = submitted.getOrDefault("Gender", "");
             Assert.assertEquals(actualGender, gender, "Gender should match");
-            test.log(Status.PASS, "Gender verification passed: " + actualGender);
+            log(Status.PASS, "Gender verification passed: " + actualGender);
             
         } catch (AssertionError e) {
-            test.log(Status.FAIL, "Gender verification failed: " + e.getMessage());
+            log(Status.FAIL, "Gender verification failed: " + e.getMessage());
             throw e;
         }
         
         try {
-            String actualMobile = registrationPage.getSubmittedValue("Mobile");
+            String actualMobile = submitted.getOrDefault("Mobile", "");
             Assert.assertEquals(actualMobile, mobile, "Mobile should match");
-            test.log(Status.PASS, "Mobile verification passed: " + actualMobile);
+            log(Status.PASS, "Mobile verification passed: " + actualMobile);
             
         } catch (AssertionError e) {
-            test.log(Status.FAIL, "Mobile verification failed: " + e.getMessage());
+            log(Status.FAIL, "Mobile verification failed: " + e.getMessage());
             throw e;
         }
         
         try {
             String expectedDate = dateOfBirth.replace(" ", ",");
-            String actualDate = registrationPage.getSubmittedValue("Date of Birth").replace(" ", ",");
+            String actualDate = submitted.getOrDefault("Date of Birth", "").replace(" ", ",");
             Assert.assertEquals(actualDate, expectedDate, "Date of Birth should match");
-            test.log(Status.PASS, "Date of Birth verification passed: " + actualDate);
+            log(Status.PASS, "Date of Birth verification passed: " + actualDate);
             
         } catch (AssertionError e) {
-            test.log(Status.FAIL, "Date of Birth verification failed: " + e.getMessage());
+            log(Status.FAIL, "Date of Birth verification failed: " + e.getMessage());
             throw e;
         }
         
         try {
             String expectedSub = subjects;
-            String actualSub = registrationPage.getSubmittedValue("Subjects");
+            String actualSub = submitted.getOrDefault("Subjects", "");
             Assert.assertTrue(actualSub.toLowerCase().contains(expectedSub.toLowerCase()),
                 "Subjects should match. Expected: " + expectedSub + ", Actual: " + actualSub);
-            test.log(Status.PASS, "Subjects verification passed: " + actualSub);
+            log(Status.PASS, "Subjects verification passed: " + actualSub);
             
         } catch (AssertionError e) {
-            test.log(Status.FAIL, "Subjects verification failed: " + e.getMessage());
+            log(Status.FAIL, "Subjects verification failed: " + e.getMessage());
             throw e;
         }
         
         try {
-            String actualAddress = registrationPage.getSubmittedValue("Address");
+            String actualAddress = submitted.getOrDefault("Address", "");
             Assert.assertEquals(actualAddress, address, "Address should match");
-            test.log(Status.PASS, "Address verification passed: " + actualAddress);
+            log(Status.PASS, "Address verification passed: " + actualAddress);
             
         } catch (AssertionError e) {
-            test.log(Status.FAIL, "Address verification failed: " + e.getMessage());
+            log(Status.FAIL, "Address verification failed: " + e.getMessage());
             throw e;
         }
     }
@@ -277,5 +270,6 @@ public class RegistrationTest extends BaseTest {
     @AfterMethod
     public void tearDownMethod(ITestResult result) {
         super.tearDownTest(result);
+        registrationPage.remove();
     }
 }
\ No newline at end of file
@@ -1,64 +1,179 @@
 package utils;
 
-import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.MediaEntityBuilder;
 import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
 
-import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
+import org.testng.ITestContext;
 import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeSuite;
 
+import reports.ExtentReporter;
+
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class BaseTest {
 
-    protected WebDriver driver;
-    protected ExtentReports extent;
-    protected ExtentTest test;
+    // Each test thread gets its own browser session and report node
+    private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    private static final ThreadLocal<TestLog> testLog = new ThreadLocal<>();
+
+    // Screenshot file names are prefixed with the current test name plus a run-wide sequence number
+    private static final ThreadLocal<String> screenshotPrefix = ThreadLocal.withInitial(() -> "Suite");
+    private static final AtomicLong screenshotCounter = new AtomicLong();
+    // Step captures held back until the test's outcome is known, for capture.policy=on-failure
+    private static final ThreadLocal<FlightRecorder> flightRecorder = ThreadLocal.withInitial(FlightRecorder::new);
+
+    // With -Dsession.reuse=true each test thread keeps its browser across tests so the form can
+    // be reset in place instead of reloaded; the sessions are closed at suite end
+    private static final boolean reuseSession = Boolean.getBoolean("session.reuse");
+    private static final ThreadLocal<WebDriver> threadDriver = new ThreadLocal<>();
+    private static final Set<WebDriver> reusedDrivers = ConcurrentHashMap.newKeySet();
 
     @BeforeSuite
-    public void setupExtent() {
-        extent = reports.ExtentReporter.getExtentReport();
+    public void setupExtent(ITestContext context) {
+        DriverFactory.configure(context.getSuite().getParameter("browser.profile"));
+        ExtentReporter.getExtentReport();
+        if (DriverPool.isEnabled()) {
+            // Start warming sessions while the data providers load
+            DriverPool.getInstance(DriverFactory::launch);
+        }
     }
 
     public void initializeDriver() {
-        driver = new ChromeDriver();
-        driver.manage().window().maximize();
+        StepTimer.time("initializeDriver", () -> {
+            driver.set(reuseSession ? reusedDriver() : acquireDriver());
+            if (NetworkPolicy.isEnabled()) {
+                NetworkPolicy.getInstance().attach(driver.get());
+            }
+        });
     }
     
     public void closeDriver() {
-        if (driver != null) {
-            driver.quit();
+        StepTimer.time("closeDriver", () -> {
+            WebDriver webDriver = driver.get();
+            // Reused sessions stay with their thread until the suite ends
+            if (webDriver != null && !reuseSession) {
+                releaseDriver(webDriver);
+            }
+            driver.remove();
+        });
+    }
+
+    // This thread's kept session, replaced if the browser has gone away since the last test
+    private WebDriver reusedDriver() {
+        WebDriver webDriver = threadDriver.get();
+        if (webDriver != null && !isAlive(webDriver)) {
+            System.out.println("Reused browser session is gone, starting a new one");
+            reusedDrivers.remove(webDriver);
+            quitQuietly(webDriver);
+            webDriver = null;
+        }
+        if (webDriver == null) {
+            webDriver = acquireDriver();
+            threadDriver.set(webDriver);
+            reusedDrivers.add(webDriver);
         }
+        return webDriver;
     }
 
-    // Screenshot of full page
-    public String takeFullPageScreenshot(String fileName) {
+    private WebDriver acquireDriver() {
+        if (DriverPool.isEnabled()) {
+            return DriverPool.getInstance(DriverFactory::launch).lease();
+        }
+        return DriverFactory.launch();
+    }
+
+    private void releaseDriver(WebDriver webDriver) {
+        // Drop the interceptor first, whether the session is quit or goes back to the pool
+        if (NetworkPolicy.isEnabled()) {
+            NetworkPolicy.getInstance().detach(webDriver);
+        }
+        if (DriverPool.isEnabled()) {
+            DriverPool.getInstance(DriverFactory::launch).release(webDriver);
+        } else {
+            webDriver.quit();
+        }
+    }
+
+    private boolean isAlive(WebDriver webDriver) {
         try {
-            TakesScreenshot ts = (TakesScreenshot) driver;
-            File sourceFile = ts.getScreenshotAs(OutputType.FILE);
-            
-            // Create Screenshot directory if it doesn't exist
-            String screenshotDir = System.getProperty("user.dir") + "/test-output/" + "Screenshot/" ;
-            File directory = new File(screenshotDir);
-            if (!directory.exists()) {
-                directory.mkdirs();
-            }
-            
-            String filePath = screenshotDir + fileName;
-            File targetFile = new File(filePath);
-            FileUtils.copyFile(sourceFile, targetFile);
-//            System.out.println("Screenshot saved: " + filePath);
-            return filePath;
+            webDriver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void quitQuietly(WebDriver webDriver) {
+        try {
+            releaseDriver(webDriver);
+        } catch (Exception e) {
+            System.err.println("Error closing browser session: " + e.getMessage());
+        }
+    }
+
+    // Close every session kept by session reuse
+    private void closeReusedDrivers() {
+        for (WebDriver webDriver : reusedDrivers) {
+            quitQuietly(webDriver);
+        }
+        reusedDrivers.clear();
+    }
+
+    public WebDriver getDriver() {
+        return driver.get();
+    }
+
+    public ExtentTest getTest() {
+        TestLog log = testLog.get();
+        return log != null ? log.getTest() : null;
+    }
 
+    // Log a step for the current test, buffered or written straight through depending on log.mode
+    public void log(Status status, String details) {
+        TestLog log = testLog.get();
+        if (log != null) {
+            log.log(status, details);
+        }
+    }
+
+    // Create the report node for the test running on the current thread
+    public ExtentTest createTest(String testName) {
+        ExtentTest extentTest = ExtentReporter.createTest(testName);
+        testLog.set(new TestLog(extentTest));
+        screenshotPrefix.set(testName.replaceAll("[^A-Za-z0-9]+", "_"));
+        return extentTest;
+    }
+
+    // Capture the current page as PNG bytes, the only part that has to happen on the test thread
+    public byte[] captureScreenshot() {
+        return ((TakesScreenshot) getDriver()).getScreenshotAs(OutputType.BYTES);
+    }
+
+    // Screenshot of full page, re-encoded and written in the background. Identical frames share
+    // one content-addressed file. The returned path is final immediately and the file appears
+    // once the write completes.
+    public String takeFullPageScreenshot(String fileName) {
+        try {
+            return StepTimer.time("takeFullPageScreenshot", () -> {
+                byte[] image = captureScreenshot();
+                return ScreenshotStore.getInstance().store(image, uniqueCaptureName(fileName));
+            });
         } catch (Exception e) {
             System.err.println("Error taking full page screenshot: " + e.getMessage());
             e.printStackTrace();
@@ -66,38 +181,159 @@ public class BaseTest {
         }
     }
     
+    private String uniqueCaptureName(String fileName) {
+        return screenshotPrefix.get() + "_" + String.format("%05d", screenshotCounter.incrementAndGet()) + "_" + fileName;
+    }
+
+    // Capture a test step according to -Dcapture.policy: a screenshot straight into the report,
+    // a buffered capture that is only written out if the test fails, or nothing
+    public void captureStep(String name, String description) {
+        switch (FlightRecorder.getPolicy()) {
+            case ALWAYS:
+                try {
+                    String screenshotPath = takeFullPageScreenshot(name + ".png");
+                    if (screenshotPath != null) {
+                        attachFileScreenshot(screenshotPath, description);
+                    }
+                } catch (IOException e) {
+                    log(Status.WARNING, "Failed to capture " + name + ": " + e.getMessage());
+                }
+                break;
+            case ON_FAILURE:
+                try {
+                    flightRecorder.get().record(getDriver(), name, description);
+                } catch (Exception e) {
+                    System.err.println("Error recording step capture " + name + ": " + e.getMessage());
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Write the buffered step captures of a failed test to disk and add them to its log
+    private void writeFlightRecorder(TestLog log) {
+        for (FlightRecorder.Capture capture : flightRecorder.get().drain()) {
+            if (capture.isDom()) {
+                File target = new File(OutputPaths.resolve("Captures"), uniqueCaptureName(capture.getName()) + ".html");
+                ScreenshotWriter.getInstance().write(capture::getContent, target);
+                log.log(Status.INFO, capture.getDescription() + ": <a href='" + target.toURI() + "' target='_blank'>DOM snapshot</a>");
+            } else {
+                String path = ScreenshotStore.getInstance().store(capture.getContent(), uniqueCaptureName(capture.getName() + ".png"));
+                log.log(Status.INFO, capture.getDescription(), MediaEntityBuilder.createScreenCaptureFromPath(path).build());
+            }
+        }
+    }
+
     //To attach screenshots in extent report
     public void attachFileScreenshot(String filePath, String description) throws IOException {
-        if (test != null && filePath != null) {
-			test.log(Status.INFO, description, 
-			    MediaEntityBuilder.createScreenCaptureFromPath(filePath).build());
-        }
+        StepTimer.time("attachFileScreenshot", () -> {
+            TestLog log = testLog.get();
+            if (log != null && filePath != null) {
+                log.log(Status.INFO, description, 
+                    MediaEntityBuilder.createScreenCaptureFromPath(filePath).build());
+            }
+        });
     }
 
     @AfterMethod
     public void tearDownTest(ITestResult result) {
-        if (test != null) {
+        TestLog log = testLog.get();
+        if (log != null) {
+            // Inside the guard, so a second teardown on this thread doesn't record the row twice
+            recordResult(result);
+            ExtentTest extentTest = log.getTest();
             if (result.getStatus() == ITestResult.FAILURE) {
-                test.fail(result.getThrowable());
+                writeFlightRecorder(log);
                 String filePath = takeFullPageScreenshot("Failure_Screenshot.png");
                 try {
 					attachFileScreenshot(filePath, "Screenshot on Failure (Full Page)");
 				} catch (IOException e) {
 					e.printStackTrace();
 				}
+                // In deferred log mode buffered step detail is only written out for failing and skipped tests
+                log.finish(false);
+                ExtentReporter.update(extentTest, t -> t.fail(result.getThrowable()));
             } else if (result.getStatus() == ITestResult.SUCCESS) {
-                test.pass("Test passed successfully.");
+                log.finish(true);
+                ExtentReporter.update(extentTest, t -> t.pass("Test passed successfully."));
             } else if (result.getStatus() == ITestResult.SKIP) {
-                test.skip(result.getThrowable());
+                log.finish(false);
+                ExtentReporter.update(extentTest, t -> t.skip(result.getThrowable()));
+            }
+            if (NetworkPolicy.isEnabled()) {
+                // Written straight to the node so passing tests keep it in deferred log mode
+                String networkSummary = NetworkPolicy.getInstance().summary(getDriver());
+                if (networkSummary != null) {
+                    ExtentReporter.update(extentTest, t -> t.info(networkSummary));
+                }
             }
+            ExtentReporter.testCompleted(extentTest);
             closeDriver(); 
+            // Clear the node so a second teardown on this thread is a no-op
+            testLog.remove();
+            screenshotPrefix.remove();
+            flightRecorder.get().clear();
         }
     }
 
     @AfterSuite
     public void tearDownExtent() {
-        if (extent != null) {
-            extent.flush();
+        // Make sure every screenshot the report links to is on disk
+        ScreenshotWriter.getInstance().awaitPending(60, TimeUnit.SECONDS);
+        reportStepTimings();
+        reportCachedPasses();
+        ExtentReporter.flush();
+        closeReusedDrivers();
+        DriverPool.shutdownInstance();
+        StandInServer.shutdownInstance();
+    }
+
+    // Append a data-driven test's outcome to the result cache as soon as it is known, so an
+    // interrupted run picks up after the last finished row
+    private void recordResult(ITestResult result) {
+        if (!ResultCache.isEnabled() || result.getParameters().length == 0) {
+            return;
+        }
+        String status = result.getStatus() == ITestResult.SUCCESS ? "pass"
+            : result.getStatus() == ITestResult.FAILURE ? "fail" : "skip";
+        Method method = result.getMethod().getConstructorOrMethod().getMethod();
+        ResultCache.getInstance().record(method, result.getParameters(), status);
+    }
+
+    // One passing node per test method listing the rows skipped as cached passes
+    private void reportCachedPasses() {
+        if (!ResultCache.isEnabled()) {
+            return;
+        }
+        for (Map.Entry<String, List<Object[]>> entry : ResultCache.getInstance().getCachedPasses().entrySet()) {
+            List<Object[]> rows = entry.getValue();
+            String[][] table = new String[rows.size()][];
+            for (int i = 0; i < table.length; i++) {
+                Object[] row = rows.get(i);
+                table[i] = new String[row.length];
+                for (int j = 0; j < row.length; j++) {
+                    table[i][j] = String.valueOf(row[j]);
+                }
+            }
+            ExtentTest cached = ExtentReporter.createTest("Cached passes: " + entry.getKey() + " (" + rows.size() + " rows)");
+            ExtentReporter.update(cached, t -> {
+                t.assignCategory("cached-pass");
+                t.pass("Unchanged since an earlier pass, not run again. Use -Dtestcache.force=true to run them.");
+                t.info(MarkupHelper.createTable(table));
+            });
+            ExtentReporter.summaryCompleted(cached);
+        }
+    }
+
+    // Per-step percentiles as JSON next to the report, plus a summary table inside it
+    private void reportStepTimings() {
+        if (!StepTimer.hasData()) {
+            return;
         }
+        StepTimer.exportJson(new File(OutputPaths.resolve("step-timings.json")));
+        ExtentTest timings = ExtentReporter.createTest("Step Timings");
+        ExtentReporter.update(timings, t -> t.info(MarkupHelper.createTable(StepTimer.summaryTable())));
+        ExtentReporter.summaryCompleted(timings);
     }
 }
@@ -0,0 +1,121 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Waits that run inside the browser in a single async script call and return as soon as
+// the page signals the condition, instead of sleeping or polling over the driver.
+public class BrowserWaits {
+
+    // Shared prelude: finish() resolves once, and a timer resolves false after the timeout
+    private static final String PRELUDE =
+        "var done = arguments[arguments.length - 1];"
+        + "var timeoutMs = arguments[0];"
+        + "var finished = false;"
+        + "var cleanups = [];"
+        + "function finish(result) {"
+        + "  if (finished) return;"
+        + "  finished = true;"
+        + "  cleanups.forEach(function (c) { c(); });"
+        + "  done(result);"
+        + "}"
+        + "var timer = setTimeout(function () { finish(false); }, timeoutMs);"
+        + "cleanups.push(function () { clearTimeout(timer); });";
+
+    // Scroll smoothly and resolve on scrollend, or once the element's position is unchanged for two frames
+    private static final String SCROLL_INTO_VIEW = PRELUDE
+        + "var el = arguments[1];"
+        + "var last = null, stable = 0;"
+        + "function position() {"
+        + "  var r = el.getBoundingClientRect();"
+        + "  return r.top + ',' + r.left + ',' + window.scrollX + ',' + window.scrollY;"
+        + "}"
+        + "function tick() {"
+        + "  if (finished) return;"
+        + "  var p = position();"
+        + "  if (p === last) { if (++stable >= 2) { finish(true); return; } } else { stable = 0; last = p; }"
+        + "  requestAnimationFrame(tick);"
+        + "}"
+        + "if ('onscrollend' in window) {"
+        + "  var onEnd = function () { finish(true); };"
+        + "  document.addEventListener('scrollend', onEnd, true);"
+        + "  cleanups.push(function () { document.removeEventListener('scrollend', onEnd, true); });"
+        + "}"
+        + "el.scrollIntoView({behavior: 'smooth', block: 'center'});"
+        + "requestAnimationFrame(tick);";
+
+    // Resolve after the given number of rendered frames
+    private static final String FRAMES = PRELUDE
+        + "var remaining = arguments[1];"
+        + "function tick() { if (--remaining <= 0) { finish(true); } else { requestAnimationFrame(tick); } }"
+        + "requestAnimationFrame(tick);";
+
+    // Evaluate the condition now and again on every DOM mutation until it holds
+    private static final String CONDITION = PRELUDE
+        + "var args = Array.prototype.slice.call(arguments, 2, arguments.length - 1);"
+        + "var condition = new Function('args', arguments[1]);"
+        + "function check() {"
+        + "  try { if (condition(args)) { finish(true); } } catch (e) {}"
+        + "}"
+        + "var observer = new MutationObserver(check);"
+        + "observer.observe(document.documentElement, {subtree: true, childList: true, attributes: true, characterData: true});"
+        + "cleanups.push(function () { observer.disconnect(); });"
+        + "check();";
+
+    // Condition body used for visibility checks, with args[0] as the element or a CSS selector
+    private static final String VISIBLE =
+        "var el = typeof args[0] === 'string' ? document.querySelector(args[0]) : args[0];"
+        + "if (!el || !el.isConnected) return false;"
+        + "var style = getComputedStyle(el);"
+        + "return (el.offsetWidth > 0 || el.offsetHeight > 0 || el.getClientRects().length > 0)"
+        + "  && style.visibility !== 'hidden' && parseFloat(style.opacity) > 0;";
+
+    private final JavascriptExecutor js;
+    private final long timeoutMs;
+
+    public BrowserWaits(WebDriver driver, Duration timeout) {
+        this.js = (JavascriptExecutor) driver;
+        this.timeoutMs = timeout.toMillis();
+        // Keep the driver's own script timeout above ours so the page-side timer always wins
+        driver.manage().timeouts().scriptTimeout(timeout.plusSeconds(5));
+    }
+
+    public boolean scrollIntoView(WebElement element) {
+        return run(SCROLL_INTO_VIEW, element);
+    }
+
+    public boolean frames(int count) {
+        return run(FRAMES, count);
+    }
+
+    public boolean visible(WebElement element) {
+        return until(VISIBLE, element);
+    }
+
+    public boolean visible(String cssSelector) {
+        return until(VISIBLE, cssSelector);
+    }
+
+    // Wait until a JS function body returns true; the extra arguments are available as args[i]
+    public boolean until(String conditionBody, Object... args) {
+        List<Object> scriptArgs = new ArrayList<>();
+        scriptArgs.add(conditionBody);
+        scriptArgs.addAll(Arrays.asList(args));
+        return run(CONDITION, scriptArgs.toArray());
+    }
+
+    private boolean run(String script, Object... args) {
+        return StepTimer.time("BrowserWaits", () -> {
+            Object[] scriptArgs = new Object[args.length + 1];
+            scriptArgs[0] = timeoutMs;
+            System.arraycopy(args, 0, scriptArgs, 1, args.length);
+            return Boolean.TRUE.equals(js.executeAsyncScript(script, scriptArgs));
+        });
+    }
+}
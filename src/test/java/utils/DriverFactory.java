@@ -0,0 +1,105 @@
+package utils;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+// Launches browser sessions from a named profile, chosen with the browser.profile suite
+// parameter or -Dbrowser.profile (the system property wins):
+//   default         headed, maximized, normal page load, as Chrome starts out of the box
+//   fast-headless   headless, fixed viewport, eager page load, no images, extensions or GPU
+//   debug-headed    headed on a fixed viewport, normal page load, browser left open if the run
+//                   ends without quitting it
+// -Dbrowser.windowSize=WxH overrides the viewport of the profiles that use one (default 1366x768).
+// Launch times are recorded per profile in the step timings as driver.launch.<profile>.
+public class DriverFactory {
+
+    private static volatile Profile profile;
+
+    public enum Profile {
+        DEFAULT("default"),
+        FAST_HEADLESS("fast-headless"),
+        DEBUG_HEADED("debug-headed");
+
+        private final String name;
+
+        Profile(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public static Profile fromName(String name) {
+            for (Profile profile : values()) {
+                if (profile.name.equalsIgnoreCase(name.trim())) {
+                    return profile;
+                }
+            }
+            throw new IllegalArgumentException("Invalid browser profile: " + name);
+        }
+    }
+
+    // Pick the profile for this run; a -Dbrowser.profile system property overrides the suite parameter
+    public static void configure(String suiteParameter) {
+        String name = System.getProperty("browser.profile", suiteParameter);
+        profile = name == null || name.trim().isEmpty() ? Profile.DEFAULT : Profile.fromName(name);
+    }
+
+    public static Profile getProfile() {
+        if (profile == null) {
+            configure(null);
+        }
+        return profile;
+    }
+
+    // Launch a new browser session with the configured profile, used directly or by the driver pool
+    public static WebDriver launch() {
+        Profile current = getProfile();
+        long start = System.nanoTime();
+        WebDriver driver = new ChromeDriver(options(current));
+        switch (current) {
+            case FAST_HEADLESS:
+                // Window size comes from the command line, headless windows can't be maximized
+                break;
+            case DEBUG_HEADED:
+                driver.manage().window().setSize(windowSize());
+                break;
+            default:
+                driver.manage().window().maximize();
+                break;
+        }
+        StepTimer.record("driver.launch." + current.getName(), System.nanoTime() - start);
+        return driver;
+    }
+
+    static ChromeOptions options(Profile profile) {
+        ChromeOptions options = new ChromeOptions();
+        if (profile == Profile.FAST_HEADLESS) {
+            Dimension size = windowSize();
+            options.addArguments("--headless=new", "--window-size=" + size.getWidth() + "," + size.getHeight(),
+                "--disable-gpu", "--disable-extensions", "--disable-dev-shm-usage",
+                "--blink-settings=imagesEnabled=false", "--no-first-run", "--no-default-browser-check");
+            // Return from navigation once the DOM is ready, not after every image and ad has loaded
+            options.setPageLoadStrategy(PageLoadStrategy.EAGER);
+        } else if (profile == Profile.DEBUG_HEADED) {
+            options.setPageLoadStrategy(PageLoadStrategy.NORMAL);
+            // Leave the browser open if the driver is never quit, e.g. when a debugger stops the run
+            options.setExperimentalOption("detach", true);
+        }
+        return options;
+    }
+
+    private static Dimension windowSize() {
+        String size = System.getProperty("browser.windowSize", "1366x768");
+        String[] parts = size.toLowerCase().split("x");
+        try {
+            return new Dimension(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid browser.windowSize: " + size);
+        }
+    }
+}
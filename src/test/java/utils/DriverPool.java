@@ -0,0 +1,259 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Pool of pre-launched browser sessions that are leased per test and scrubbed between leases.
+// Enabled with -Ddriver.pool=true, sized with -Ddriver.pool.size and -Ddriver.pool.maxReuse.
+// A failed launch is retried -Ddriver.pool.launchAttempts times in all (default 3), backing off
+// from -Ddriver.pool.launchBackoffMs (default 1000) and doubling; a slot that still fails is
+// dropped, and once every slot is gone leases fail straight away instead of waiting out the timeout.
+public class DriverPool {
+
+    private static final int LEASE_TIMEOUT_SECONDS = 120;
+
+    private static DriverPool instance;
+
+    private final Supplier<WebDriver> factory;
+    private final int maxReuse;
+    private final int launchAttempts;
+    private final long launchBackoffMillis;
+    // Sessions idle, leased or being launched; slots whose launches kept failing are not counted
+    private final AtomicInteger slots;
+    private volatile Exception lastLaunchError;
+    private final BlockingQueue<PooledDriver> idle = new LinkedBlockingQueue<>();
+    private final Map<WebDriver, PooledDriver> leased = new ConcurrentHashMap<>();
+    private final ExecutorService launcher;
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private volatile boolean shutdown;
+
+    // A session plus the number of tests it has served
+    private static class PooledDriver {
+        final WebDriver driver;
+        int uses;
+
+        PooledDriver(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+
+    DriverPool(Supplier<WebDriver> factory, int size, int maxReuse, int launchAttempts, long launchBackoffMillis) {
+        this.factory = factory;
+        this.maxReuse = maxReuse;
+        this.launchAttempts = launchAttempts;
+        this.launchBackoffMillis = launchBackoffMillis;
+        this.slots = new AtomicInteger(size);
+        this.launcher = Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable, "driver-pool-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Warm up every slot in the background, leases block only until the first one is ready
+        for (int i = 0; i < size; i++) {
+            launchAsync();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("driver.pool");
+    }
+
+    public static synchronized DriverPool getInstance(Supplier<WebDriver> factory) {
+        if (instance == null) {
+            int size = Math.max(1, Integer.getInteger("driver.pool.size", 2));
+            int maxReuse = Math.max(1, Integer.getInteger("driver.pool.maxReuse", 20));
+            int launchAttempts = Math.max(1, Integer.getInteger("driver.pool.launchAttempts", 3));
+            long launchBackoffMillis = Math.max(0L, Long.getLong("driver.pool.launchBackoffMs", 1000L));
+            instance = new DriverPool(factory, size, maxReuse, launchAttempts, launchBackoffMillis);
+        }
+        return instance;
+    }
+
+    public static synchronized void shutdownInstance() {
+        if (instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+    }
+
+    // Take a healthy session from the pool, replacing any broken ones found on the way
+    public WebDriver lease() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(LEASE_TIMEOUT_SECONDS);
+        while (true) {
+            PooledDriver pooled;
+            try {
+                // Woken every second to notice a pool that has lost all its slots
+                pooled = idle.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for a pooled driver", e);
+            }
+            if (pooled == null) {
+                if (slots.get() <= 0) {
+                    throw new RuntimeException("Every pooled driver failed to launch", lastLaunchError);
+                }
+                if (System.nanoTime() - deadline >= 0) {
+                    throw new RuntimeException("No pooled driver became available within " + LEASE_TIMEOUT_SECONDS + "s");
+                }
+                continue;
+            }
+            if (isHealthy(pooled.driver)) {
+                leased.put(pooled.driver, pooled);
+                return pooled.driver;
+            }
+            System.out.println("Discarding broken pooled driver, launching a replacement");
+            retire(pooled);
+        }
+    }
+
+    // Return a session to the pool, or replace it when it is worn out or cannot be cleaned
+    public void release(WebDriver driver) {
+        PooledDriver pooled = leased.remove(driver);
+        if (pooled == null) {
+            driver.quit();
+            return;
+        }
+        pooled.uses++;
+        if (shutdown || pooled.uses >= maxReuse || !scrub(pooled.driver)) {
+            retire(pooled);
+            return;
+        }
+        idle.offer(pooled);
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        // Queued quits of retired sessions still run, queued launches see the flag and return
+        for (Runnable task : launcher.shutdownNow()) {
+            task.run();
+        }
+        try {
+            launcher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        PooledDriver pooled;
+        while ((pooled = idle.poll()) != null) {
+            quitQuietly(pooled.driver);
+        }
+        for (WebDriver driver : leased.keySet()) {
+            quitQuietly(driver);
+        }
+        leased.clear();
+    }
+
+    private void retire(PooledDriver pooled) {
+        // Once shut down the launcher takes no more work, a late release quits on the caller's thread
+        if (shutdown) {
+            quitQuietly(pooled.driver);
+            return;
+        }
+        try {
+            launcher.submit(() -> quitQuietly(pooled.driver));
+        } catch (RejectedExecutionException e) {
+            // Shut down between the check and the submit
+            quitQuietly(pooled.driver);
+            return;
+        }
+        launchAsync();
+    }
+
+    private void launchAsync() {
+        if (shutdown) {
+            return;
+        }
+        try {
+            launcher.submit(this::launchOne);
+        } catch (RejectedExecutionException e) {
+            // Shut down while a replacement was being requested, nothing left to fill
+        }
+    }
+
+    private void launchOne() {
+        long backoff = launchBackoffMillis;
+        for (int attempt = 1; !shutdown; attempt++) {
+            try {
+                PooledDriver pooled = new PooledDriver(factory.get());
+                if (shutdown) {
+                    quitQuietly(pooled.driver);
+                } else {
+                    idle.offer(pooled);
+                }
+                return;
+            } catch (Exception e) {
+                System.err.println("Error launching pooled driver (attempt " + attempt + " of " + launchAttempts + "): " + e.getMessage());
+                if (attempt >= launchAttempts) {
+                    lastLaunchError = e;
+                    System.err.println("Giving up on a pooled driver slot, " + slots.decrementAndGet() + " left");
+                    return;
+                }
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                // Shut down while backing off
+                return;
+            }
+            backoff *= 2;
+        }
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // Clear cookies, storage and extra windows, then park the session on a blank page
+    private boolean scrub(WebDriver driver) {
+        try {
+            String mainWindow = null;
+            for (String handle : driver.getWindowHandles()) {
+                if (mainWindow == null) {
+                    mainWindow = handle;
+                } else {
+                    driver.switchTo().window(handle).close();
+                }
+            }
+            driver.switchTo().window(mainWindow);
+
+            ((JavascriptExecutor) driver).executeScript(
+                "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            if (driver instanceof HasCdp) {
+                // Clears cookies for every domain, not just the current one
+                ((HasCdp) driver).executeCdpCommand("Network.clearBrowserCookies", Collections.emptyMap());
+            } else {
+                driver.manage().deleteAllCookies();
+            }
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            System.err.println("Error scrubbing pooled driver: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            System.err.println("Error quitting pooled driver: " + e.getMessage());
+        }
+    }
+}
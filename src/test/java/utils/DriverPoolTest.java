@@ -0,0 +1,85 @@
+package utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Pools of stand-in sessions that answer the health check and count quits
+public class DriverPoolTest {
+
+    @Test
+    public void transientLaunchFailuresAreRetried() {
+        AtomicInteger launches = new AtomicInteger();
+        AtomicInteger quits = new AtomicInteger();
+        DriverPool pool = new DriverPool(() -> {
+            if (launches.incrementAndGet() <= 2) {
+                throw new WebDriverException("session not created");
+            }
+            return driver(quits);
+        }, 1, 5, 3, 10);
+        try {
+            WebDriver driver = pool.lease();
+            Assert.assertEquals(launches.get(), 3);
+            pool.release(driver);
+        } finally {
+            pool.shutdown();
+        }
+        // Every session that launched is quit, including a replacement for the released one
+        Assert.assertEquals(quits.get(), launches.get() - 2);
+    }
+
+    @Test
+    public void leaseFailsFastOnceEverySlotIsLost() {
+        Supplier<WebDriver> broken = () -> {
+            throw new WebDriverException("chrome not reachable");
+        };
+        DriverPool pool = new DriverPool(broken, 2, 5, 2, 10);
+        long start = System.nanoTime();
+        try {
+            pool.lease();
+            Assert.fail("lease should fail when no session can be launched");
+        } catch (RuntimeException e) {
+            Assert.assertEquals(e.getMessage(), "Every pooled driver failed to launch");
+            Assert.assertTrue(e.getCause() instanceof WebDriverException, String.valueOf(e.getCause()));
+        } finally {
+            pool.shutdown();
+        }
+        Assert.assertTrue(System.nanoTime() - start < 10_000_000_000L, "lease waited for the full timeout");
+    }
+
+    @Test
+    public void lateReleaseAfterShutdownQuitsTheSession() {
+        AtomicInteger quits = new AtomicInteger();
+        DriverPool pool = new DriverPool(() -> driver(quits), 1, 5, 1, 10);
+        WebDriver driver = pool.lease();
+        pool.shutdown();
+        Assert.assertEquals(quits.get(), 1);
+        // Already quit by the shutdown, a late teardown releasing it quits it again harmlessly
+        pool.release(driver);
+        Assert.assertEquals(quits.get(), 2);
+    }
+
+    private static WebDriver driver(AtomicInteger quits) {
+        return (WebDriver) Proxy.newProxyInstance(DriverPoolTest.class.getClassLoader(), new Class<?>[] {WebDriver.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getWindowHandle":
+                        return "main";
+                    case "quit":
+                        quits.incrementAndGet();
+                        return null;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}
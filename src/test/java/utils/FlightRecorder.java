@@ -0,0 +1,182 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Per-thread ring buffer of the last few step captures, kept in memory and only written out
+// when the test fails. Used by BaseTest.captureStep() according to the capture policy:
+//   -Dcapture.policy=always       (default) screenshot every step straight to disk and the report
+//   -Dcapture.policy=on-failure   keep the last -Dcapture.buffer steps (default 5) in memory, write
+//                                 and attach them only if the test fails
+//   -Dcapture.policy=off          no step captures, the failure screenshot is still taken
+//   -Dcapture.mode=dom|frame      what on-failure keeps: a gzipped DOM snapshot (default, one small
+//                                 script call) or a screenshot
+public class FlightRecorder {
+
+    public enum Policy {
+        OFF, ON_FAILURE, ALWAYS;
+
+        public static Policy fromName(String name) {
+            for (Policy policy : values()) {
+                if (policy.name().replace('_', '-').equalsIgnoreCase(name.trim())) {
+                    return policy;
+                }
+            }
+            throw new IllegalArgumentException("Invalid capture policy: " + name);
+        }
+    }
+
+    private static final Policy policy = Policy.fromName(System.getProperty("capture.policy", "always"));
+    private static final boolean domMode = !"frame".equalsIgnoreCase(System.getProperty("capture.mode", "dom"));
+
+    // Serializes a copy of the page with the current field values written into attributes,
+    // since outerHTML alone only shows what the inputs started with
+    private static final String DOM_SNAPSHOT_SCRIPT =
+        "var copy = document.documentElement.cloneNode(true);"
+        + "var live = document.querySelectorAll('input, textarea, select');"
+        + "var cloned = copy.querySelectorAll('input, textarea, select');"
+        + "for (var i = 0; i < live.length && i < cloned.length; i++) {"
+        + "  var el = live[i], target = cloned[i];"
+        + "  if (el.type === 'checkbox' || el.type === 'radio') {"
+        + "    if (el.checked) { target.setAttribute('checked', ''); } else { target.removeAttribute('checked'); }"
+        + "  } else if (el.tagName === 'TEXTAREA') {"
+        + "    target.textContent = el.value;"
+        + "  } else if (el.tagName === 'SELECT') {"
+        + "    for (var j = 0; j < el.options.length; j++) {"
+        + "      if (el.options[j].selected) { target.options[j].setAttribute('selected', ''); } else { target.options[j].removeAttribute('selected'); }"
+        + "    }"
+        + "  } else if (el.type !== 'file' && el.type !== 'password') {"
+        + "    target.setAttribute('value', el.value);"
+        + "  }"
+        + "}"
+        + "copy.querySelectorAll('script').forEach(function (s) { s.parentNode.removeChild(s); });"
+        + "return {url: location.href, html: copy.outerHTML};";
+
+    private final int capacity;
+    private final ArrayDeque<Capture> buffer = new ArrayDeque<>();
+
+    // One buffered step: gzipped HTML or PNG bytes
+    public static class Capture {
+        private final String name;
+        private final String description;
+        private final boolean dom;
+        private final byte[] data;
+
+        Capture(String name, String description, boolean dom, byte[] data) {
+            this.name = name;
+            this.description = description;
+            this.dom = dom;
+            this.data = data;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public boolean isDom() {
+            return dom;
+        }
+
+        // The HTML document or PNG image
+        public byte[] getContent() {
+            return dom ? gunzip(data) : data;
+        }
+
+        // Bytes held in the buffer, compressed for DOM snapshots
+        int storedSize() {
+            return data.length;
+        }
+    }
+
+    public FlightRecorder() {
+        this(Math.max(1, Integer.getInteger("capture.buffer", 5)));
+    }
+
+    public FlightRecorder(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public static Policy getPolicy() {
+        return policy;
+    }
+
+    // Take a capture of the current page into the buffer, dropping the oldest once it is full
+    public void record(WebDriver driver, String name, String description) {
+        StepTimer.time("FlightRecorder.record", () -> {
+            Capture capture;
+            if (domMode) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> snapshot = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(DOM_SNAPSHOT_SCRIPT);
+                String html = withBase(String.valueOf(snapshot.get("html")), String.valueOf(snapshot.get("url")));
+                capture = new Capture(name, description, true, gzip(html.getBytes(StandardCharsets.UTF_8)));
+            } else {
+                capture = new Capture(name, description, false, ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES));
+            }
+            if (buffer.size() >= capacity) {
+                buffer.removeFirst();
+            }
+            buffer.addLast(capture);
+        });
+    }
+
+    // The buffered captures, oldest first, leaving the buffer empty
+    public List<Capture> drain() {
+        List<Capture> captures = new ArrayList<>(buffer);
+        buffer.clear();
+        return captures;
+    }
+
+    public void clear() {
+        buffer.clear();
+    }
+
+    // Resolve the snapshot's stylesheets and images against the page it came from
+    private static String withBase(String html, String url) {
+        String base = "<base href=\"" + url.replace("\"", "&quot;") + "\">";
+        int head = html.indexOf("<head>");
+        return head >= 0 ? html.substring(0, head + 6) + base + html.substring(head + 6) : base + html;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 4);
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new RuntimeException("Error compressing capture", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length * 4);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                bytes.write(chunk, 0, read);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error decompressing capture", e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,89 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Drives the recorder with a stand-in driver whose only working call is the DOM snapshot script
+public class FlightRecorderTest {
+
+    @BeforeClass
+    public void requireDomMode() {
+        if ("frame".equalsIgnoreCase(System.getProperty("capture.mode"))) {
+            throw new SkipException("Run with -Dcapture.mode=frame");
+        }
+    }
+
+    @Test
+    public void keepsOnlyTheLastStepsOldestFirst() {
+        FlightRecorder recorder = new FlightRecorder(3);
+        WebDriver driver = pageDriver();
+        for (int step = 1; step <= 5; step++) {
+            recorder.record(driver, "step" + step, "Step " + step);
+        }
+        List<FlightRecorder.Capture> captures = recorder.drain();
+        Assert.assertEquals(captures.size(), 3);
+        Assert.assertEquals(captures.get(0).getName(), "step3");
+        Assert.assertEquals(captures.get(2).getDescription(), "Step 5");
+        Assert.assertTrue(recorder.drain().isEmpty(), "drain should empty the buffer");
+    }
+
+    @Test
+    public void domSnapshotRoundTripsThroughGzipWithABase() {
+        FlightRecorder recorder = new FlightRecorder(2);
+        recorder.record(pageDriver(), "form", "Filled form");
+        FlightRecorder.Capture capture = recorder.drain().get(0);
+
+        Assert.assertTrue(capture.isDom());
+        String html = new String(capture.getContent(), StandardCharsets.UTF_8);
+        Assert.assertTrue(html.startsWith("<html><head><base href=\"http://127.0.0.1/form?a=&quot;b&quot;\">"), html);
+        Assert.assertTrue(html.contains("<input id=\"firstName\" value=\"Step 1\">"), html);
+        // A repetitive page compresses well below its own size
+        Assert.assertTrue(capture.storedSize() < html.length() / 4, capture.storedSize() + " of " + html.length());
+    }
+
+    @Test
+    public void clearDropsBufferedSteps() {
+        FlightRecorder recorder = new FlightRecorder(2);
+        recorder.record(pageDriver(), "one", "One");
+        recorder.clear();
+        Assert.assertTrue(recorder.drain().isEmpty());
+    }
+
+    @Test
+    public void policyNamesUseDashes() {
+        Assert.assertEquals(FlightRecorder.Policy.fromName(" On-Failure "), FlightRecorder.Policy.ON_FAILURE);
+        Assert.assertEquals(FlightRecorder.Policy.fromName("always"), FlightRecorder.Policy.ALWAYS);
+        Assert.assertThrows(IllegalArgumentException.class, () -> FlightRecorder.Policy.fromName("on_failure_only"));
+    }
+
+    // A page whose first name field shows which step it was captured at
+    private static WebDriver pageDriver() {
+        AtomicInteger calls = new AtomicInteger();
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            rows.append("<div class=\"row\"><label>Field ").append(i).append("</label></div>");
+        }
+        return (WebDriver) Proxy.newProxyInstance(FlightRecorderTest.class.getClassLoader(),
+            new Class<?>[] {WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                if (!"executeScript".equals(method.getName())) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                Map<String, Object> snapshot = new HashMap<>();
+                snapshot.put("url", "http://127.0.0.1/form?a=\"b\"");
+                snapshot.put("html", "<html><head></head><body><input id=\"firstName\" value=\"Step "
+                    + calls.incrementAndGet() + "\">" + rows + "</body></html>");
+                return snapshot;
+            });
+    }
+}
@@ -0,0 +1,256 @@
+package utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// Blocks or stubs third-party requests (ads, analytics, fonts) through Chrome DevTools so
+// page loads only wait for what the form needs.
+//   -Dnetwork.policy=off       (default) no interception
+//   -Dnetwork.policy=enforce   denied requests get an empty canned response and never leave the browser
+//   -Dnetwork.policy=observe   everything is fetched as normal, denied requests are only counted and
+//                              their response bytes measured, to see what enforce would save
+//   -Dnetwork.deny=a,b         URL patterns to block, '*' matches anything (default: common ad,
+//                              analytics and web font hosts)
+//   -Dnetwork.allow=a,b        URL patterns that are never blocked, checked before the deny list
+// Tests can register their own canned responses with stub(). Enforce mode never fetches what it
+// blocks, so only observe mode can report the bytes a deny list saves.
+public class NetworkPolicy {
+
+    static final String DEFAULT_DENY = String.join(",",
+        "*googlesyndication.com*", "*doubleclick.net*", "*googletagmanager.com*", "*googletagservices.com*",
+        "*google-analytics.com*", "*adservice.google.*", "*amazon-adsystem.com*", "*adsafeprotected.com*",
+        "*ad.plus*", "*adplus*", "*fonts.googleapis.com*", "*fonts.gstatic.com*", "*facebook.net*");
+
+    private static NetworkPolicy instance;
+
+    private final boolean enforce;
+    private final List<Pattern> allow;
+    private final List<Pattern> deny;
+    private final List<Stub> stubs = Collections.synchronizedList(new ArrayList<>());
+    // Interceptors by browser session, each holds its driver; detach() must run before a session
+    // is quit or handed back to the pool
+    private final Map<WebDriver, Session> sessions = Collections.synchronizedMap(new HashMap<>());
+
+    // Canned response for URLs matching a pattern
+    private static class Stub {
+        final Pattern pattern;
+        final int status;
+        final String contentType;
+        final byte[] body;
+
+        Stub(Pattern pattern, int status, String contentType, byte[] body) {
+            this.pattern = pattern;
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        HttpResponse response() {
+            HttpResponse response = new HttpResponse().setStatus(status);
+            if (contentType != null) {
+                response.setHeader("Content-Type", contentType);
+            }
+            response.setHeader("Access-Control-Allow-Origin", "*");
+            return response.setContent(Contents.bytes(body));
+        }
+    }
+
+    // Interception counters for one browser session, reset each time a test attaches
+    static class Session {
+        NetworkInterceptor interceptor;
+        final LongAdder requests = new LongAdder();
+        final LongAdder blocked = new LongAdder();
+        final LongAdder stubbed = new LongAdder();
+        final LongAdder blockedBytes = new LongAdder();
+
+        void reset() {
+            requests.reset();
+            blocked.reset();
+            stubbed.reset();
+            blockedBytes.reset();
+        }
+    }
+
+    NetworkPolicy(boolean enforce, String allow, String deny) {
+        this.enforce = enforce;
+        this.allow = patterns(allow);
+        this.deny = patterns(deny);
+    }
+
+    public static boolean isEnabled() {
+        return !"off".equalsIgnoreCase(System.getProperty("network.policy", "off"));
+    }
+
+    public static synchronized NetworkPolicy getInstance() {
+        if (instance == null) {
+            String mode = System.getProperty("network.policy", "off").toLowerCase();
+            if (!"enforce".equals(mode) && !"observe".equals(mode)) {
+                throw new IllegalArgumentException("Invalid network.policy: " + mode);
+            }
+            instance = new NetworkPolicy("enforce".equals(mode),
+                System.getProperty("network.allow", ""), System.getProperty("network.deny", DEFAULT_DENY));
+        }
+        return instance;
+    }
+
+    // Answer requests matching the pattern with a fixed response; stubs apply in both modes
+    public void stub(String pattern, int status, String contentType, String body) {
+        stubs.add(new Stub(toPattern(pattern), status, contentType, body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Start intercepting this session if needed and reset its counters for the next test
+    public void attach(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) {
+            System.err.println("Network policy needs a DevTools capable driver, not applied to " + driver.getClass().getSimpleName());
+            return;
+        }
+        Session session;
+        synchronized (sessions) {
+            session = sessions.get(driver);
+            if (session == null) {
+                session = new Session();
+                session.interceptor = new NetworkInterceptor(driver, filter(session));
+                sessions.put(driver, session);
+            }
+        }
+        session.reset();
+    }
+
+    // Stop intercepting, call before the session is quit
+    public void detach(WebDriver driver) {
+        Session session = sessions.remove(driver);
+        if (session != null) {
+            try {
+                session.interceptor.close();
+            } catch (Exception e) {
+                System.err.println("Error closing network interceptor: " + e.getMessage());
+            }
+        }
+    }
+
+    // One line summary of what was blocked since the last attach, or null if the session isn't intercepted
+    public String summary(WebDriver driver) {
+        Session session = driver == null ? null : sessions.get(driver);
+        return session == null ? null : summary(session);
+    }
+
+    String summary(Session session) {
+        long blocked = session.blocked.sum();
+        long stubbed = session.stubbed.sum();
+        if (enforce) {
+            return "Network policy (enforce): " + blocked + " of " + session.requests.sum() + " requests blocked, "
+                + stubbed + " stubbed (bytes saved are not measured in enforce mode, use observe to size them)";
+        }
+        return "Network policy (observe): " + blocked + " of " + session.requests.sum() + " requests would be blocked, "
+            + String.format("%.1f", session.blockedBytes.sum() / 1024.0) + " KB of responses, " + stubbed + " stubbed";
+    }
+
+    Filter filter(Session session) {
+        return next -> request -> {
+            String url = request.getUri();
+            session.requests.increment();
+            Stub stub = findStub(url);
+            if (stub != null) {
+                session.stubbed.increment();
+                return stub.response();
+            }
+            if (!isDenied(url)) {
+                return next.execute(request);
+            }
+            session.blocked.increment();
+            if (enforce) {
+                return cannedResponse(url);
+            }
+            HttpResponse response = next.execute(request);
+            session.blockedBytes.add(responseSize(response));
+            return response;
+        };
+    }
+
+    private Stub findStub(String url) {
+        synchronized (stubs) {
+            for (Stub stub : stubs) {
+                if (stub.pattern.matcher(url).matches()) {
+                    return stub;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean isDenied(String url) {
+        for (Pattern pattern : allow) {
+            if (pattern.matcher(url).matches()) {
+                return false;
+            }
+        }
+        for (Pattern pattern : deny) {
+            if (pattern.matcher(url).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Empty but well-formed content so pages that load scripts and styles don't hit error handlers
+    private static HttpResponse cannedResponse(String url) {
+        String path = url.split("[?#]", 2)[0].toLowerCase();
+        HttpResponse response = new HttpResponse();
+        if (path.endsWith(".js")) {
+            response.setStatus(200).setHeader("Content-Type", "application/javascript");
+        } else if (path.endsWith(".css")) {
+            response.setStatus(200).setHeader("Content-Type", "text/css");
+        } else {
+            response.setStatus(204);
+        }
+        response.setHeader("Access-Control-Allow-Origin", "*");
+        return response.setContent(Contents.empty());
+    }
+
+    private static long responseSize(HttpResponse response) {
+        String contentLength = response.getHeader("Content-Length");
+        if (contentLength != null) {
+            try {
+                return Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException e) {
+                // fall back to the body
+            }
+        }
+        return response.getContent().length();
+    }
+
+    private static List<Pattern> patterns(String list) {
+        List<Pattern> patterns = new ArrayList<>();
+        for (String pattern : list.split(",")) {
+            if (!pattern.trim().isEmpty()) {
+                patterns.add(toPattern(pattern.trim()));
+            }
+        }
+        return patterns;
+    }
+
+    private static Pattern toPattern(String glob) {
+        String[] parts = glob.split("\\*", -1);
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(parts[i]));
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+    }
+}
@@ -0,0 +1,135 @@
+package utils;
+
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Runs the policy's filter against the stand-in page's real requests, the way the browser's
+// interceptor would, without needing a browser
+public class NetworkPolicyTest {
+
+    private static final Pattern THIRD_PARTY = Pattern.compile("(?:src|href)=\"(/thirdparty/[^\"]+)\"");
+
+    @AfterClass
+    public void stopServer() {
+        StandInServer.shutdownInstance();
+    }
+
+    @Test
+    public void enforceBlocksAndCountsThirdPartyRequestsOfTheStandInPage() {
+        NetworkPolicy policy = new NetworkPolicy(true, "", "*/thirdparty/*");
+        NetworkPolicy.Session session = new NetworkPolicy.Session();
+        HttpHandler browser = policy.filter(session).andFinally(NetworkPolicyTest::fetch);
+
+        HttpResponse page = browser.execute(get(formUrl()));
+        Assert.assertEquals(page.getStatus(), 200);
+        List<String> thirdParty = thirdPartyUrls(Contents.string(page));
+        Assert.assertEquals(thirdParty.size(), 2, "stand-in page should load ads.js and fonts.css");
+
+        for (String url : thirdParty) {
+            HttpResponse response = browser.execute(get(url));
+            Assert.assertEquals(response.getStatus(), 200, url);
+            Assert.assertEquals(Contents.bytes(response.getContent()).length, 0, "blocked " + url + " should be empty");
+        }
+        Assert.assertEquals(session.requests.sum(), 3);
+        Assert.assertEquals(session.blocked.sum(), 2);
+        Assert.assertEquals(session.blockedBytes.sum(), 0);
+        Assert.assertTrue(policy.summary(session).startsWith("Network policy (enforce): 2 of 3 requests blocked"), policy.summary(session));
+    }
+
+    @Test
+    public void observeFetchesThirdPartyRequestsAndMeasuresTheirBytes() {
+        NetworkPolicy policy = new NetworkPolicy(false, "", "*/thirdparty/*");
+        NetworkPolicy.Session session = new NetworkPolicy.Session();
+        HttpHandler browser = policy.filter(session).andFinally(NetworkPolicyTest::fetch);
+
+        long served = 0;
+        for (String url : thirdPartyUrls(Contents.string(browser.execute(get(formUrl()))))) {
+            HttpResponse response = browser.execute(get(url));
+            served += Contents.bytes(response.getContent()).length;
+        }
+        Assert.assertEquals(session.blocked.sum(), 2);
+        Assert.assertTrue(served > 0);
+        Assert.assertEquals(session.blockedBytes.sum(), served);
+        Assert.assertTrue(policy.summary(session).startsWith("Network policy (observe): 2 of 3 requests would be blocked"), policy.summary(session));
+    }
+
+    @Test
+    public void allowListWinsOverDenyListAndStubsWinOverBoth() {
+        NetworkPolicy policy = new NetworkPolicy(true, "*/thirdparty/fonts.css", "*/thirdparty/*");
+        policy.stub("*/api/*", 201, "application/json", "{}");
+        NetworkPolicy.Session session = new NetworkPolicy.Session();
+        HttpHandler browser = policy.filter(session).andFinally(request -> new HttpResponse().setStatus(299));
+
+        Assert.assertEquals(browser.execute(get("http://127.0.0.1/thirdparty/fonts.css")).getStatus(), 299);
+        Assert.assertEquals(browser.execute(get("http://127.0.0.1/thirdparty/pixel.gif")).getStatus(), 204);
+        Assert.assertEquals(browser.execute(get("http://127.0.0.1/thirdparty/api/x")).getStatus(), 201);
+        Assert.assertEquals(session.blocked.sum(), 1);
+        Assert.assertEquals(session.stubbed.sum(), 1);
+    }
+
+    @Test
+    public void defaultDenyListMatchesAdAndFontHostsButNotTheForm() {
+        NetworkPolicy policy = new NetworkPolicy(true, "", NetworkPolicy.DEFAULT_DENY);
+        NetworkPolicy.Session session = new NetworkPolicy.Session();
+        HttpHandler browser = policy.filter(session).andFinally(request -> new HttpResponse().setStatus(200));
+
+        browser.execute(get("https://securepubads.g.doubleclick.net/tag/js/gpt.js"));
+        browser.execute(get("https://FONTS.GSTATIC.COM/s/roboto.woff2"));
+        browser.execute(get("https://demoqa.com/automation-practice-form"));
+        Assert.assertEquals(session.blocked.sum(), 2);
+    }
+
+    private static String formUrl() {
+        return StandInServer.getInstance().url(StandInServer.REGISTRATION_FORM_PATH);
+    }
+
+    private static List<String> thirdPartyUrls(String html) {
+        List<String> urls = new ArrayList<>();
+        Matcher matcher = THIRD_PARTY.matcher(html);
+        while (matcher.find()) {
+            urls.add(StandInServer.getInstance().url(matcher.group(1)));
+        }
+        return urls;
+    }
+
+    private static HttpRequest get(String url) {
+        return new HttpRequest(HttpMethod.GET, url);
+    }
+
+    // What the browser would have fetched, straight from the server
+    private static HttpResponse fetch(HttpRequest request) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(request.getUri()).openConnection();
+            HttpResponse response = new HttpResponse().setStatus(connection.getResponseCode());
+            response.setHeader("Content-Type", connection.getContentType());
+            try (InputStream in = connection.getInputStream()) {
+                ByteArrayOutputStream body = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    body.write(buffer, 0, read);
+                }
+                return response.setContent(Contents.bytes(body.toByteArray()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package utils;
+
+import java.io.File;
+
+// Where run artifacts go: test-output/ under the working directory, or
+// test-output/shard-I-of-N/ when sharded so agents sharing a workspace don't collide
+public class OutputPaths {
+
+    public static File outputDirectory() {
+        File directory = new File(System.getProperty("user.dir"), "test-output");
+        return Shard.isSharded() ? new File(directory, Shard.label()) : directory;
+    }
+
+    // A file or directory inside the output directory
+    public static String resolve(String name) {
+        return new File(outputDirectory(), name).getPath();
+    }
+}
@@ -0,0 +1,186 @@
+package utils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.StreamSupport;
+
+// Skips data rows that already passed with the same inputs and code. Each row is fingerprinted
+// from its values, the test method, the app target and the compiled bytes of the page and test
+// classes; results are appended to a log as tests finish, so an interrupted run resumes where it
+// stopped and a changed row, method or class runs again.
+//   -Dtestcache.enabled=true   filter previously passed rows out of the data providers (default off)
+//   -Dtestcache.force=true     run every row anyway, still recording the results
+//   -Dtestcache.dir=D          where the log lives (default target/test-cache)
+public class ResultCache {
+
+    // Compiled classes whose changes invalidate every cached result
+    private static final String[] CODE_CLASSES = {
+        "tests.RegistrationTest", "pages.RegistrationPage", "pages.DatePicker", "pages.ValidationSnapshot"
+    };
+
+    private static ResultCache instance;
+
+    private final File log;
+    private final String codeFingerprint;
+    // Latest status per fingerprint, from earlier runs and this one
+    private final Map<String, String> results = new ConcurrentHashMap<>();
+    // Rows skipped in this run, by test method
+    private final Map<String, List<Object[]>> cachedPasses = new LinkedHashMap<>();
+
+    ResultCache(File directory) {
+        this.log = new File(directory, "results.log");
+        this.codeFingerprint = codeFingerprint();
+        load();
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("testcache.enabled");
+    }
+
+    public static synchronized ResultCache getInstance() {
+        if (instance == null) {
+            instance = new ResultCache(new File(System.getProperty("testcache.dir", "target/test-cache")));
+        }
+        return instance;
+    }
+
+    // The rows still to run for this test method; rows that passed before are held back and
+    // remembered for the report. Lazy, so streaming data sources stay streaming.
+    public Iterator<Object[]> filter(Method method, Iterator<Object[]> rows) {
+        if (Boolean.getBoolean("testcache.force")) {
+            return rows;
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, 0), false)
+            .filter(row -> {
+                if ("pass".equals(results.get(fingerprint(method, row)))) {
+                    synchronized (cachedPasses) {
+                        cachedPasses.computeIfAbsent(method.getName(), k -> new ArrayList<>()).add(row);
+                    }
+                    return false;
+                }
+                return true;
+            })
+            .iterator();
+    }
+
+    // Append a finished row's result; status is pass, fail or skip
+    public void record(Method method, Object[] row, String status) {
+        String fingerprint = fingerprint(method, row);
+        results.put(fingerprint, status);
+        String line = fingerprint + "\t" + status + "\t" + System.currentTimeMillis() + "\t"
+            + method.getDeclaringClass().getSimpleName() + "." + method.getName() + "\n";
+        try {
+            log.getAbsoluteFile().getParentFile().mkdirs();
+            // One small append per line, so parallel threads and shards sharing the log don't interleave
+            synchronized (this) {
+                Files.write(log.toPath(), line.getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing test cache " + log + ": " + e.getMessage());
+        }
+    }
+
+    // Rows skipped as cached passes in this run, by test method name
+    public Map<String, List<Object[]>> getCachedPasses() {
+        synchronized (cachedPasses) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(cachedPasses));
+        }
+    }
+
+    String fingerprint(Method method, Object[] row) {
+        MessageDigest digest = sha256();
+        update(digest, codeFingerprint);
+        update(digest, method.getDeclaringClass().getName() + "#" + method.getName());
+        update(digest, System.getProperty("app.target", "live"));
+        // Trailing blank cells are left out as for shards, so a re-padded sheet keeps its results
+        for (int i = 0, length = Shard.significantLength(row); i < length; i++) {
+            update(digest, String.valueOf(row[i]));
+        }
+        return hex(digest.digest());
+    }
+
+    private void load() {
+        if (!log.isFile()) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(log.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t");
+                // Later lines win, a torn last line from a killed run is ignored
+                if (fields.length >= 4) {
+                    results.put(fields[0], fields[1]);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading test cache " + log + ": " + e.getMessage());
+        }
+    }
+
+    private static String codeFingerprint() {
+        MessageDigest digest = sha256();
+        for (String className : CODE_CLASSES) {
+            String resource = "/" + className.replace('.', '/') + ".class";
+            try (InputStream in = ResultCache.class.getResourceAsStream(resource)) {
+                if (in == null) {
+                    update(digest, className + " missing");
+                    continue;
+                }
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    bytes.write(buffer, 0, read);
+                }
+                digest.update(bytes.toByteArray());
+            } catch (IOException e) {
+                throw new RuntimeException("Error reading " + resource + " for the test cache", e);
+            }
+        }
+        return hex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        // Length-prefixed so ("ab", "c") and ("a", "bc") differ
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
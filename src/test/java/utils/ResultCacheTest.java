@@ -0,0 +1,109 @@
+package utils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+public class ResultCacheTest {
+
+    private static final Object[] ROW = {"Valid", "Aryan", "Sinha", "aryan.sinha@gmail.com", "Male", "1234567890"};
+
+    private File directory;
+    private Method valid;
+    private Method invalid;
+
+    @BeforeMethod
+    public void createDirectory() throws Exception {
+        directory = Files.createTempDirectory("ResultCacheTest-").toFile();
+        valid = ResultCacheTest.class.getDeclaredMethod("validRegistration", Object[].class);
+        invalid = ResultCacheTest.class.getDeclaredMethod("invalidRegistration", Object[].class);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() {
+        new File(directory, "results.log").delete();
+        directory.delete();
+    }
+
+    @Test
+    public void fingerprintIsStableAcrossInstancesAndPadding() {
+        ResultCache first = new ResultCache(directory);
+        ResultCache second = new ResultCache(directory);
+        Object[] padded = {"Valid", "Aryan", "Sinha", "aryan.sinha@gmail.com", "Male", "1234567890", "", null};
+
+        Assert.assertEquals(first.fingerprint(valid, ROW), second.fingerprint(valid, ROW.clone()));
+        Assert.assertEquals(first.fingerprint(valid, padded), first.fingerprint(valid, ROW));
+        Assert.assertTrue(first.fingerprint(valid, ROW).matches("[0-9a-f]{64}"));
+    }
+
+    @Test
+    public void fingerprintChangesWithValuesPositionsAndMethod() {
+        ResultCache cache = new ResultCache(directory);
+        String fingerprint = cache.fingerprint(valid, ROW);
+
+        Object[] changed = ROW.clone();
+        changed[5] = "1234567891";
+        Assert.assertNotEquals(cache.fingerprint(valid, changed), fingerprint);
+        // A blank inside the row is not padding
+        Assert.assertNotEquals(cache.fingerprint(valid, new Object[] {"Invalid", "", "Sinha"}),
+            cache.fingerprint(valid, new Object[] {"Invalid", "Sinha"}));
+        Assert.assertNotEquals(cache.fingerprint(valid, new Object[] {"ab", "c"}), cache.fingerprint(valid, new Object[] {"a", "bc"}));
+        Assert.assertNotEquals(cache.fingerprint(invalid, ROW), fingerprint);
+    }
+
+    @Test
+    public void passedRowsAreSkippedByTheNextRunOnly() {
+        Object[] failing = {"Valid", "Priya", "Sharma", "priya@example.com", "Female", "9876543210"};
+        ResultCache run = new ResultCache(directory);
+        run.record(valid, ROW, "pass");
+        run.record(valid, failing, "fail");
+
+        ResultCache next = new ResultCache(directory);
+        Assert.assertEquals(toList(next.filter(valid, Arrays.asList(ROW, failing).iterator())), Arrays.asList(new Object[][] {failing}));
+        Assert.assertEquals(next.getCachedPasses().get("validRegistration").size(), 1);
+        // Another method with the same row still runs
+        Assert.assertEquals(toList(next.filter(invalid, Arrays.asList(new Object[][] {ROW}).iterator())).size(), 1);
+    }
+
+    @Test
+    public void laterResultsWinAndATornLastLineIsIgnored() throws IOException {
+        ResultCache run = new ResultCache(directory);
+        run.record(valid, ROW, "pass");
+        run.record(valid, ROW, "fail");
+        String fingerprint = run.fingerprint(valid, ROW);
+        Object[] other = {"Valid", "Rahul", "Verma"};
+        // A run killed mid-write leaves half a line behind
+        Files.write(new File(directory, "results.log").toPath(),
+            (run.fingerprint(valid, other) + "\tpass").getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        ResultCache next = new ResultCache(directory);
+        Assert.assertEquals(next.fingerprint(valid, ROW), fingerprint);
+        Assert.assertEquals(toList(next.filter(valid, Arrays.asList(ROW, other).iterator())).size(), 2);
+        Assert.assertTrue(next.getCachedPasses().isEmpty());
+    }
+
+    private static List<Object[]> toList(Iterator<Object[]> rows) {
+        List<Object[]> list = new ArrayList<>();
+        rows.forEachRemaining(list::add);
+        return list;
+    }
+
+    // Stand-ins for data-driven test methods, only their identity goes into the fingerprint
+    private void validRegistration(Object[] row) {
+    }
+
+    private void invalidRegistration(Object[] row) {
+    }
+}
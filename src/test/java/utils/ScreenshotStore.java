@@ -0,0 +1,169 @@
+package utils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Content-addressed screenshot store. Identical frames are stored once and every report
+// entry links to the shared copy. New frames are decoded on the test thread, so the link's
+// extension is settled before it is returned, and re-encoded off it at a configurable size and quality:
+//   -Dscreenshot.format=jpg|png   (default jpg)
+//   -Dscreenshot.quality=0.8      (jpg only, 0.0 - 1.0)
+//   -Dscreenshot.maxWidth=1280    (0 keeps the original size)
+//   -Dscreenshot.dedup=false      (store every capture under its own name)
+public class ScreenshotStore {
+
+    private static ScreenshotStore instance;
+
+    private final String directory;
+    private final String format;
+    private final float quality;
+    private final int maxWidth;
+    private final boolean dedup;
+    private final Map<String, String> stored = new ConcurrentHashMap<>();
+
+    ScreenshotStore(String directory) {
+        this.directory = directory;
+        this.format = "png".equalsIgnoreCase(System.getProperty("screenshot.format")) ? "png" : "jpg";
+        this.quality = Math.max(0f, Math.min(1f, Float.parseFloat(System.getProperty("screenshot.quality", "0.8"))));
+        this.maxWidth = Integer.getInteger("screenshot.maxWidth", 1280);
+        this.dedup = Boolean.parseBoolean(System.getProperty("screenshot.dedup", "true"));
+    }
+
+    public static synchronized ScreenshotStore getInstance() {
+        if (instance == null) {
+            instance = new ScreenshotStore(OutputPaths.resolve("Screenshot") + File.separator);
+        }
+        return instance;
+    }
+
+    // Store a PNG capture and return the path the report should link to.
+    // uniqueName is used only when deduplication is switched off.
+    public String store(byte[] png, String uniqueName) {
+        if (!dedup) {
+            return write(png, decode(png), directory + uniqueName.replaceAll("\\.png$", ""));
+        }
+        String hash = contentHash(png);
+        String known = stored.get(hash);
+        if (known != null) {
+            return known;
+        }
+        // Decoded here so the extension, and so the link, is final before it is handed out
+        BufferedImage source = decode(png);
+        String path = new File(directory + hash + "." + (source != null ? format : "png")).getPath();
+        // Reserve the hash first and write outside the map, a caller-run write must not hold its lock
+        String previous = stored.putIfAbsent(hash, path);
+        if (previous != null) {
+            return previous;
+        }
+        // Also reuse identical frames written by an earlier run with the same settings
+        if (!new File(path).exists()) {
+            ScreenshotWriter.getInstance().write(() -> source != null ? encode(source) : png, new File(path))
+                // Forget a frame that never reached disk, so the next identical one writes it again
+                .whenComplete((written, error) -> {
+                    if (error != null) {
+                        stored.remove(hash, path);
+                    }
+                });
+        }
+        return path;
+    }
+
+    // Bytes no image reader can decode can't be re-encoded, they are kept as they came under .png
+    private String write(byte[] png, BufferedImage source, String name) {
+        File target = new File(name + "." + (source != null ? format : "png"));
+        ScreenshotWriter.getInstance().write(() -> source != null ? encode(source) : png, target);
+        return target.getPath();
+    }
+
+    public int storedCount() {
+        return stored.size();
+    }
+
+    // Hash of the raw capture plus the encoding settings, so changed settings produce new files
+    private String contentHash(byte[] png) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(png);
+            digest.update((format + "|" + quality + "|" + maxWidth).getBytes(StandardCharsets.UTF_8));
+            byte[] hash = digest.digest();
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                hex.append(String.format("%02x", hash[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+
+    // The decoded capture, or null if no image reader can read it
+    private static BufferedImage decode(byte[] png) {
+        try {
+            return ImageIO.read(new ByteArrayInputStream(png));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error decoding screenshot, keeping original: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private byte[] encode(BufferedImage source) {
+        BufferedImage image = scale(source);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            if ("png".equals(format)) {
+                ImageIO.write(image, "png", out);
+                return out.toByteArray();
+            }
+
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+                writer.setOutput(ios);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            // Fails the write, a deduplicated frame is then written again by its next capture
+            throw new UncheckedIOException("Error encoding screenshot", e);
+        }
+    }
+
+    // Downscale to maxWidth and drop the alpha channel, which JPEG can't store
+    private BufferedImage scale(BufferedImage source) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        if (maxWidth > 0 && width > maxWidth) {
+            height = Math.max(1, (int) Math.round(height * (maxWidth / (double) width)));
+            width = maxWidth;
+        }
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+}
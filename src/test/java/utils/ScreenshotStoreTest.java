@@ -0,0 +1,86 @@
+package utils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Runs with the default settings: jpg, deduplicated
+public class ScreenshotStoreTest {
+
+    private File directory;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("ScreenshotStoreTest-").toFile();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        ScreenshotWriter.getInstance().awaitPending(10, TimeUnit.SECONDS);
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void identicalFramesShareOneFile() throws IOException {
+        ScreenshotStore store = new ScreenshotStore(directory.getPath() + File.separator);
+        String first = store.store(png(), "a.png");
+        String second = store.store(png(), "b.png");
+
+        Assert.assertEquals(second, first);
+        Assert.assertTrue(first.endsWith(".jpg"), first);
+        Assert.assertEquals(store.storedCount(), 1);
+        ScreenshotWriter.getInstance().awaitPending(10, TimeUnit.SECONDS);
+        Assert.assertNotNull(ImageIO.read(new File(first)), "stored frame should be a readable image");
+    }
+
+    @Test
+    public void undecodableBytesAreLinkedAndWrittenAsPng() {
+        ScreenshotStore store = new ScreenshotStore(directory.getPath() + File.separator);
+        byte[] truncated = "\u0089PNG\r\n\u001a\n not really".getBytes(StandardCharsets.ISO_8859_1);
+        String path = store.store(truncated, "a.png");
+
+        Assert.assertTrue(path.endsWith(".png"), path);
+        ScreenshotWriter.getInstance().awaitPending(10, TimeUnit.SECONDS);
+        Assert.assertTrue(new File(path).isFile(), "the link should point at the written file");
+    }
+
+    @Test
+    public void failedWriteIsForgottenSoTheNextCaptureWritesAgain() throws IOException {
+        // A plain file where the directory should be, so every write fails
+        File blocked = new File(directory, "blocked");
+        Assert.assertTrue(blocked.createNewFile());
+        ScreenshotStore store = new ScreenshotStore(blocked.getPath() + File.separator + "shots" + File.separator);
+
+        store.store(png(), "a.png");
+        ScreenshotWriter.getInstance().awaitPending(10, TimeUnit.SECONDS);
+        // The entry is dropped by a callback of the failed write, which may still be running
+        long deadline = System.currentTimeMillis() + 5000;
+        while (store.storedCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        Assert.assertEquals(store.storedCount(), 0);
+    }
+
+    private static byte[] png() throws IOException {
+        BufferedImage image = new BufferedImage(40, 20, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(3, 4, 0xFFDC3545);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,87 @@
+package utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Writes screenshot bytes to disk on a small background pool so test threads don't wait on I/O.
+// The queue is bounded: once it is full the calling thread writes the file itself, which
+// throttles capture instead of letting pending images pile up in memory.
+// Tune with -Dscreenshot.writerThreads and -Dscreenshot.queueSize.
+public class ScreenshotWriter {
+
+    private static ScreenshotWriter instance;
+
+    private final ThreadPoolExecutor executor;
+    private final Set<CompletableFuture<String>> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    private ScreenshotWriter(int threads, int queueSize) {
+        executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueSize),
+            runnable -> {
+                Thread thread = new Thread(runnable, "screenshot-writer-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static synchronized ScreenshotWriter getInstance() {
+        if (instance == null) {
+            int threads = Math.max(1, Integer.getInteger("screenshot.writerThreads", 2));
+            int queueSize = Math.max(1, Integer.getInteger("screenshot.queueSize", 32));
+            instance = new ScreenshotWriter(threads, queueSize);
+        }
+        return instance;
+    }
+
+    // Queue the bytes for writing, the future completes with the path once the file is on disk
+    public CompletableFuture<String> write(byte[] image, File target) {
+        return write(() -> image, target);
+    }
+
+    // Same as write(byte[], File) but the bytes are produced on the writer thread, e.g. by re-encoding
+    public CompletableFuture<String> write(Supplier<byte[]> image, File target) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        pending.add(future);
+        future.whenComplete((path, error) -> pending.remove(future));
+        executor.execute(() -> {
+            try {
+                File directory = target.getParentFile();
+                if (directory != null && !directory.exists()) {
+                    directory.mkdirs();
+                }
+                // Write beside the target and move it in, so a half-written file is never visible
+                File temp = new File(target.getPath() + ".tmp");
+                Files.write(temp.toPath(), image.get());
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                future.complete(target.getPath());
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error writing screenshot " + target + ": " + e.getMessage());
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    // Block until every queued screenshot has been written, e.g. before the report is flushed
+    public void awaitPending(long timeout, TimeUnit unit) {
+        CompletableFuture<?>[] outstanding = pending.toArray(new CompletableFuture<?>[0]);
+        try {
+            CompletableFuture.allOf(outstanding).get(timeout, unit);
+        } catch (Exception e) {
+            System.err.println("Not all screenshots were written: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+// Splits data rows across independent JVMs or CI agents. Run each agent with
+//   -Dshard.index=I -Dshard.count=N     (0 <= I < N, default 0 of 1 = every row)
+// A row belongs to the shard given by a CRC32 of its cell values, so every agent makes
+// the same split without coordinating, and a row keeps its shard when others are added.
+public class Shard {
+
+    private static final int count = Integer.getInteger("shard.count", 1);
+    private static final int index = Integer.getInteger("shard.index", 0);
+
+    static {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + " of " + count
+                + ": shard.count must be at least 1 and shard.index between 0 and shard.count - 1");
+        }
+    }
+
+    public static boolean isSharded() {
+        return count > 1;
+    }
+
+    public static int index() {
+        return index;
+    }
+
+    public static int count() {
+        return count;
+    }
+
+    // e.g. shard-2-of-4
+    public static String label() {
+        return "shard-" + index + "-of-" + count;
+    }
+
+    public static boolean includes(Object[] row) {
+        return !isSharded() || shardOf(row, count) == index;
+    }
+
+    static int shardOf(Object[] row, int shardCount) {
+        int length = significantLength(row);
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                crc.update(0x1f);
+            }
+            crc.update(String.valueOf(row[i]).getBytes(StandardCharsets.UTF_8));
+        }
+        return (int) (crc.getValue() % shardCount);
+    }
+
+    // The row's length without trailing blank cells, readers differ in how far they pad a row
+    static int significantLength(Object[] row) {
+        int length = row.length;
+        while (length > 0 && (row[length - 1] == null || row[length - 1].toString().isEmpty())) {
+            length--;
+        }
+        return length;
+    }
+}
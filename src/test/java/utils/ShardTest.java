@@ -0,0 +1,68 @@
+package utils;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+public class ShardTest {
+
+    private static final Object[] ROW = {"Valid", "Aryan", "Sinha", "aryan.sinha@gmail.com", "Male", "1234567890"};
+
+    @Test
+    public void shardIsTheCrcOfTheCellsJoinedByUnitSeparators() {
+        // Agents on other JVMs and versions must make the same split, so the scheme is pinned
+        CRC32 crc = new CRC32();
+        crc.update(String.join("\u001f", "Valid", "Aryan", "Sinha", "aryan.sinha@gmail.com", "Male", "1234567890")
+            .getBytes(StandardCharsets.UTF_8));
+        for (int count = 1; count <= 16; count++) {
+            Assert.assertEquals(Shard.shardOf(ROW, count), (int) (crc.getValue() % count), "count " + count);
+        }
+    }
+
+    @Test
+    public void trailingBlankCellsDoNotMoveARow() {
+        Object[] padded = {"Valid", "Aryan", "Sinha", "aryan.sinha@gmail.com", "Male", "1234567890", "", null, ""};
+        for (int count = 2; count <= 16; count++) {
+            Assert.assertEquals(Shard.shardOf(padded, count), Shard.shardOf(ROW, count), "count " + count);
+        }
+    }
+
+    @Test
+    public void blankCellsInsideARowStillCount() {
+        // A missing first name is a different row from a missing last name
+        Assert.assertNotEquals(crcShard(new Object[] {"Invalid", "", "Sharma"}), crcShard(new Object[] {"Invalid", "Sharma"}));
+        Assert.assertEquals(crcShard(new Object[] {"Invalid", "Sharma", ""}), crcShard(new Object[] {"Invalid", "Sharma"}));
+    }
+
+    @Test
+    public void rowsSpreadAcrossShards() {
+        int count = 4;
+        int rows = 4000;
+        int[] sizes = new int[count];
+        for (int i = 0; i < rows; i++) {
+            sizes[Shard.shardOf(new Object[] {"Valid", "First" + i, "Last" + i, "user" + i + "@example.com"}, count)]++;
+        }
+        for (int shard = 0; shard < count; shard++) {
+            Assert.assertTrue(sizes[shard] > rows / count * 0.9 && sizes[shard] < rows / count * 1.1,
+                "shard " + shard + " got " + sizes[shard] + " of " + rows);
+        }
+    }
+
+    @Test
+    public void unshardedRunIncludesEveryRow() {
+        if (Shard.isSharded()) {
+            throw new SkipException("Run is sharded with -Dshard.count");
+        }
+        Assert.assertTrue(Shard.includes(ROW));
+        Assert.assertTrue(Shard.includes(new Object[0]));
+        Assert.assertEquals(Shard.label(), "shard-0-of-1");
+    }
+
+    // Effectively the full CRC, so different rows compare different
+    private static int crcShard(Object[] row) {
+        return Shard.shardOf(row, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,140 @@
+package utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// In-process HTTP server for the stand-in copy of the practice form (src/test/resources/standin),
+// so runs don't depend on the live site or an internet connection.
+//   -Dapp.target=live                (default) tests use the live URL
+//   -Dapp.target=local               tests use this server, started on first use on 127.0.0.1
+//   -Dstandin.port=P                 fixed port (default 0 = any free port)
+//   -Dstandin.thirdPartyDelayMs=D    delay for the page's /thirdparty/ resources, to stand in for slow
+//                                    ads and fonts, e.g. with -Dnetwork.deny=*/thirdparty/*
+public class StandInServer {
+
+    public static final String REGISTRATION_FORM_PATH = "/automation-practice-form";
+
+    private static StandInServer instance;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final byte[] registrationForm;
+    private final long thirdPartyDelayMs;
+
+    private StandInServer(int port, long thirdPartyDelayMs) throws IOException {
+        this.registrationForm = readResource("/standin/automation-practice-form.html");
+        this.thirdPartyDelayMs = thirdPartyDelayMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "standin-server-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public static boolean isSelected() {
+        String target = System.getProperty("app.target", "live");
+        if (!"local".equalsIgnoreCase(target) && !"live".equalsIgnoreCase(target)) {
+            throw new IllegalArgumentException("Invalid app.target: " + target);
+        }
+        return "local".equalsIgnoreCase(target);
+    }
+
+    public static synchronized StandInServer getInstance() {
+        if (instance == null) {
+            try {
+                instance = new StandInServer(Integer.getInteger("standin.port", 0),
+                    Long.getLong("standin.thirdPartyDelayMs", 0));
+            } catch (IOException e) {
+                System.err.println("Error starting stand-in server: " + e.getMessage());
+                throw new RuntimeException("Stand-in server could not be started", e);
+            }
+        }
+        return instance;
+    }
+
+    public static synchronized void shutdownInstance() {
+        if (instance != null) {
+            instance.server.stop(0);
+            instance.executor.shutdownNow();
+            instance = null;
+        }
+    }
+
+    // The live URL, or the stand-in page for the same path when app.target=local
+    public static String resolve(String liveUrl, String path) {
+        return isSelected() ? getInstance().url(path) : liveUrl;
+    }
+
+    public String url(String path) {
+        return "http://" + server.getAddress().getAddress().getHostAddress() + ":" + server.getAddress().getPort() + path;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            if (REGISTRATION_FORM_PATH.equals(path) || (REGISTRATION_FORM_PATH + "/").equals(path)) {
+                send(exchange, 200, "text/html; charset=utf-8", registrationForm);
+            } else if ("/thirdparty/ads.js".equals(path)) {
+                delayThirdParty();
+                send(exchange, 200, "application/javascript", "window.standInAdsLoaded = true;".getBytes(StandardCharsets.UTF_8));
+            } else if ("/thirdparty/fonts.css".equals(path)) {
+                delayThirdParty();
+                send(exchange, 200, "text/css", "body { font-family: -apple-system, Arial, sans-serif; }".getBytes(StandardCharsets.UTF_8));
+            } else {
+                send(exchange, 404, "text/plain", ("Not found: " + path).getBytes(StandardCharsets.UTF_8));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void delayThirdParty() {
+        if (thirdPartyDelayMs > 0) {
+            try {
+                Thread.sleep(thirdPartyDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] readResource(String name) throws IOException {
+        try (InputStream in = StandInServer.class.getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IOException("Resource not found: " + name);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
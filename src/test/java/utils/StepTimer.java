@@ -0,0 +1,185 @@
+package utils;
+
+import com.google.gson.GsonBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Low-overhead timing of page actions and test utilities, aggregated per step into
+// lock-free log-linear histograms (about 3% resolution) and exported at suite end.
+// Disable with -Dsteptimer.enabled=false.
+//
+//   StepTimer.time("clickSubmit", () -> {
+//       ...
+//   });
+public class StepTimer {
+
+    private static final boolean enabled = Boolean.parseBoolean(System.getProperty("steptimer.enabled", "true"));
+    private static final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private static final Scope noop = new Scope(null, 0);
+
+    // Closing the scope records the elapsed time against its step
+    public static class Scope implements AutoCloseable {
+        private final String step;
+        private final long start;
+
+        private Scope(String step, long start) {
+            this.step = step;
+            this.start = start;
+        }
+
+        @Override
+        public void close() {
+            if (step != null) {
+                record(step, System.nanoTime() - start);
+            }
+        }
+    }
+
+    public static Scope start(String step) {
+        return enabled ? new Scope(step, System.nanoTime()) : noop;
+    }
+
+    public static void time(String step, Runnable action) {
+        Scope scope = start(step);
+        try {
+            action.run();
+        } finally {
+            scope.close();
+        }
+    }
+
+    public static <T> T time(String step, Supplier<T> action) {
+        Scope scope = start(step);
+        try {
+            return action.get();
+        } finally {
+            scope.close();
+        }
+    }
+
+    public static void record(String step, long nanos) {
+        if (enabled) {
+            histograms.computeIfAbsent(step, k -> new Histogram()).record(nanos / 1000);
+        }
+    }
+
+    public static boolean hasData() {
+        return !histograms.isEmpty();
+    }
+
+    public static void reset() {
+        histograms.clear();
+    }
+
+    // Rows of step, count, p50, p95, p99 and max in milliseconds, for the report summary
+    public static String[][] summaryTable() {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] {"Step", "Count", "p50 (ms)", "p95 (ms)", "p99 (ms)", "Max (ms)"});
+        for (Map.Entry<String, Map<String, Object>> step : summary().entrySet()) {
+            Map<String, Object> stats = step.getValue();
+            rows.add(new String[] {step.getKey(), String.valueOf(stats.get("count")),
+                String.valueOf(stats.get("p50Ms")), String.valueOf(stats.get("p95Ms")),
+                String.valueOf(stats.get("p99Ms")), String.valueOf(stats.get("maxMs"))});
+        }
+        return rows.toArray(new String[0][]);
+    }
+
+    public static void exportJson(File file) {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(summary(), writer);
+        } catch (IOException e) {
+            System.err.println("Error writing step timings: " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static Map<String, Map<String, Object>> summary() {
+        Map<String, Map<String, Object>> summary = new TreeMap<>();
+        for (Map.Entry<String, Histogram> step : histograms.entrySet()) {
+            Histogram histogram = step.getValue();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", histogram.count.sum());
+            stats.put("meanMs", millis(histogram.count.sum() == 0 ? 0 : histogram.total.sum() / histogram.count.sum()));
+            stats.put("p50Ms", millis(histogram.percentile(0.50)));
+            stats.put("p95Ms", millis(histogram.percentile(0.95)));
+            stats.put("p99Ms", millis(histogram.percentile(0.99)));
+            stats.put("maxMs", millis(histogram.max.get()));
+            summary.put(step.getKey(), stats);
+        }
+        return summary;
+    }
+
+    private static double millis(long micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+
+    // Buckets values in microseconds: exact below 32, then 32 linear sub-buckets per power of two
+    static class Histogram {
+        private static final int SUB_BITS = 5;
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_COUNT);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long micros) {
+            long value = Math.max(0, micros);
+            buckets.incrementAndGet(indexOf(value));
+            count.increment();
+            total.add(value);
+            max.accumulateAndGet(value, Math::max);
+        }
+
+        long percentile(double fraction) {
+            long total = count.sum();
+            if (total == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(fraction * total));
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= target) {
+                    return Math.min(upperBound(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        private static int indexOf(long value) {
+            if (value < SUB_COUNT) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) ((value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1));
+            return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+        }
+
+        private static long upperBound(int index) {
+            if (index < SUB_COUNT) {
+                return index;
+            }
+            int exponent = index / SUB_COUNT + SUB_BITS - 1;
+            long sub = index % SUB_COUNT;
+            return ((SUB_COUNT + sub + 1) << (exponent - SUB_BITS)) - 1;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class StepTimerTest {
+
+    @Test
+    public void smallValuesAreExact() {
+        StepTimer.Histogram histogram = new StepTimer.Histogram();
+        for (long micros = 1; micros <= 31; micros++) {
+            histogram.record(micros);
+        }
+        Assert.assertEquals(histogram.percentile(0.50), 16);
+        Assert.assertEquals(histogram.percentile(1.0), 31);
+    }
+
+    @Test
+    public void percentilesAreWithinTheBucketResolution() {
+        StepTimer.Histogram histogram = new StepTimer.Histogram();
+        for (long micros = 1; micros <= 100_000; micros++) {
+            histogram.record(micros);
+        }
+        assertWithinResolution(histogram.percentile(0.50), 50_000);
+        assertWithinResolution(histogram.percentile(0.95), 95_000);
+        assertWithinResolution(histogram.percentile(0.99), 99_000);
+        // Never above the largest value seen
+        Assert.assertEquals(histogram.percentile(1.0), 100_000);
+    }
+
+    @Test
+    public void largeAndNegativeValuesStayInRange() {
+        StepTimer.Histogram histogram = new StepTimer.Histogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE / 2);
+        Assert.assertEquals(histogram.percentile(0.50), 0);
+        Assert.assertEquals(histogram.percentile(1.0), Long.MAX_VALUE / 2);
+        Assert.assertEquals(new StepTimer.Histogram().percentile(0.99), 0);
+    }
+
+    @Test
+    public void concurrentRecordsAreAllCounted() throws Exception {
+        String step = "StepTimerTest.concurrent";
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        StepTimer.record(step, 2_000_000L);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        String[] row = summaryRow(step);
+        Assert.assertEquals(row[1], "40000");
+        // 2 ms, reported in milliseconds
+        Assert.assertEquals(Double.parseDouble(row[2]), 2.0, 2.0 * 0.035);
+        Assert.assertEquals(row[5], "2.0");
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void scopeRecordsElapsedTimeOnClose() throws Exception {
+        String step = "StepTimerTest.scope";
+        try (StepTimer.Scope timer = StepTimer.start(step)) {
+            Thread.sleep(20);
+        }
+        String[] row = summaryRow(step);
+        Assert.assertEquals(row[1], "1");
+        Assert.assertTrue(Double.parseDouble(row[5]) >= 19.0, "max " + row[5]);
+    }
+
+    @Test
+    public void timeReturnsTheResultAndRecordsThrowingSteps() {
+        String step = "StepTimerTest.time";
+        Assert.assertEquals(StepTimer.time(step, () -> "value"), "value");
+        try {
+            StepTimer.time(step, () -> {
+                throw new IllegalStateException("failed");
+            });
+            Assert.fail("Expected the step's exception");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(e.getMessage(), "failed");
+        }
+        Assert.assertEquals(summaryRow(step)[1], "2");
+    }
+
+    private static String[] summaryRow(String step) {
+        String[][] table = StepTimer.summaryTable();
+        Assert.assertEquals(table[0][0], "Step");
+        for (String[] row : table) {
+            if (row[0].equals(step)) {
+                return row;
+            }
+        }
+        throw new AssertionError("No timings for " + step);
+    }
+
+    // 32 sub-buckets per power of two, about 3% wide
+    private static void assertWithinResolution(long actual, long expected) {
+        Assert.assertTrue(Math.abs(actual - expected) <= expected / 32 + 1, "expected about " + expected + ", got " + actual);
+    }
+}
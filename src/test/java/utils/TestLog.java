@@ -0,0 +1,108 @@
+package utils;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Media;
+
+import reports.ExtentReporter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Per-test log buffer in front of an ExtentTest node.
+//   -Dlog.mode=immediate  (default) write every entry to the report as it is logged
+//   -Dlog.mode=deferred   keep step detail in memory and write it to the report only when the
+//                         test fails or is skipped; passing tests get a one-line summary plus
+//                         any warnings
+//   -Dlog.level=info      drop entries below this status: info, pass, warning, skip or fail
+public class TestLog {
+
+    private static final boolean deferred = "deferred".equalsIgnoreCase(System.getProperty("log.mode", "immediate"));
+    private static final Status minimumLevel = parseLevel(System.getProperty("log.level", "info"));
+
+    private final ExtentTest test;
+    private final List<Entry> entries = new ArrayList<>();
+    private int dropped;
+
+    private static class Entry {
+        final Status status;
+        final String details;
+        final Media media;
+
+        Entry(Status status, String details, Media media) {
+            this.status = status;
+            this.details = details;
+            this.media = media;
+        }
+    }
+
+    public TestLog(ExtentTest test) {
+        this.test = test;
+    }
+
+    public ExtentTest getTest() {
+        return test;
+    }
+
+    public void log(Status status, String details) {
+        log(status, details, null);
+    }
+
+    public void log(Status status, String details, Media media) {
+        if (status.ordinal() < minimumLevel.ordinal()) {
+            dropped++;
+            return;
+        }
+        if (deferred) {
+            entries.add(new Entry(status, details, media));
+        } else {
+            write(new Entry(status, details, media));
+        }
+    }
+
+    // Write the buffered detail for a failed or skipped test, or a compact summary for a passing one
+    public void finish(boolean passed) {
+        if (!deferred) {
+            return;
+        }
+        if (passed) {
+            int warnings = 0;
+            for (Entry entry : entries) {
+                if (entry.status.ordinal() >= Status.WARNING.ordinal()) {
+                    write(entry);
+                    warnings++;
+                }
+            }
+            String summary = (entries.size() - warnings) + " step entries recorded, detail kept only for failing tests";
+            ExtentReporter.update(test, t -> t.log(Status.INFO, summary));
+        } else {
+            for (Entry entry : entries) {
+                write(entry);
+            }
+            if (dropped > 0) {
+                String summary = dropped + " entries below log level " + minimumLevel.toLower() + " were not recorded";
+                ExtentReporter.update(test, t -> t.log(Status.INFO, summary));
+            }
+        }
+        entries.clear();
+    }
+
+    private void write(Entry entry) {
+        ExtentReporter.update(test, t -> {
+            if (entry.media != null) {
+                t.log(entry.status, entry.details, entry.media);
+            } else {
+                t.log(entry.status, entry.details);
+            }
+        });
+    }
+
+    private static Status parseLevel(String level) {
+        for (Status status : Status.values()) {
+            if (status.name().equalsIgnoreCase(level)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Invalid log level: " + level);
+    }
+}